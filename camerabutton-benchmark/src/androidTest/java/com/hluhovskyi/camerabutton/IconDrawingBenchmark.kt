@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Bitmap
+import android.graphics.BitmapShader
+import android.graphics.Canvas
+import android.graphics.Color
+import android.graphics.Matrix
+import android.graphics.Paint
+import android.graphics.PixelFormat
+import android.graphics.Shader
+import android.media.ImageReader
+import android.os.Build
+import android.os.Handler
+import android.os.HandlerThread
+import android.view.Surface
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.test.filters.SdkSuppress
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+
+/**
+ * Compares icons drawing through prescaled bitmaps and destination rect
+ * used by [DefaultButtonRenderer] with previous approach based on per-frame shader matrices.
+ *
+ * Icons are drawn into hardware canvas of a surface, so every iteration includes
+ * recording of a frame and its rendering by GPU. Both benchmarks pay the same cost
+ * of frame submission, so only difference between their results comes from icons drawing.
+ */
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.M)
+class IconDrawingBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var readerThread: HandlerThread
+    private lateinit var reader: ImageReader
+    private lateinit var surface: Surface
+    private lateinit var icons: Array<Bitmap>
+    private lateinit var frame: ButtonFrame
+
+    @Before
+    fun setUp() {
+        readerThread = HandlerThread(TAG).apply { start() }
+        reader = ImageReader.newInstance(SIZE, SIZE, PixelFormat.RGBA_8888, MAX_IMAGES).apply {
+            //Rendered frames are dropped, otherwise surface runs out of buffers
+            setOnImageAvailableListener({ it.acquireLatestImage()?.close() }, Handler(readerThread.looper))
+        }
+        surface = reader.surface
+        icons = Array(ICONS_COUNT) {
+            Bitmap.createBitmap(ICON_SIZE, ICON_SIZE, Bitmap.Config.ARGB_8888).apply {
+                eraseColor(Color.WHITE)
+            }
+        }
+        frame = ButtonFrame().apply {
+            mWidth = SIZE
+            mHeight = SIZE
+            mIconSize = ICON_SIZE
+            mMainCircleRadiusCollapsed = MAIN_CIRCLE_RADIUS
+        }
+    }
+
+    @After
+    fun tearDown() {
+        reader.close()
+        readerThread.quitSafely()
+    }
+
+    @Test
+    fun benchmarkBitmapIcons() {
+        val renderer = DefaultButtonRenderer().apply {
+            onIconsChanged(ButtonIcons.create(icons, ICON_SIZE, false))
+        }
+        measure { renderer.drawIcons(it, frame) }
+    }
+
+    @Test
+    fun benchmarkShaderMatrixIcons() {
+        val renderer = ShaderIconRenderer(icons)
+        measure { renderer.drawIcons(it, frame) }
+    }
+
+    private inline fun measure(draw: (Canvas) -> Unit) {
+        val state = benchmarkRule.state
+        var frameIndex = 0
+        while (state.keepRunning()) {
+            frame.mIconPosition = positionOf(frameIndex++)
+
+            val canvas = surface.lockHardwareCanvas()
+            canvas.drawColor(Color.BLACK)
+            draw(canvas)
+            surface.unlockCanvasAndPost(canvas)
+        }
+    }
+
+    private fun positionOf(frame: Int) = (frame % (ICONS_COUNT * STEPS)) / STEPS.toFloat()
+
+    /**
+     * Icons drawing as it was done before [DefaultButtonRenderer] switched to prescaled bitmaps
+     */
+    private class ShaderIconRenderer(icons: Array<Bitmap>) {
+
+        private val shaders = Array<Shader>(icons.size) {
+            BitmapShader(icons[it], Shader.TileMode.CLAMP, Shader.TileMode.CLAMP)
+        }
+        private val matrices = Array(icons.size) { Matrix() }
+        private val paints = Array(icons.size) {
+            Paint(Paint.ANTI_ALIAS_FLAG).apply { shader = shaders[it] }
+        }
+
+        fun drawIcons(canvas: Canvas, frame: ButtonFrame) {
+            val position = frame.iconPosition
+            val leftIndex = position.toInt()
+            val leftProgress = position - leftIndex
+
+            drawIcon(canvas, frame, leftIndex, leftProgress, true)
+            if (leftIndex < shaders.size - 1) {
+                drawIcon(canvas, frame, leftIndex + 1, 1 - leftProgress, false)
+            }
+        }
+
+        private fun drawIcon(canvas: Canvas, frame: ButtonFrame, index: Int, progress: Float, isLeftIcon: Boolean) {
+            val centerX = frame.width / 2f
+            val centerY = frame.height / 2f
+            val iconSize = frame.iconSize
+
+            val iconWidth = DefaultButtonRenderer.calculateIconWidth(iconSize, progress)
+            val translation = DefaultButtonRenderer.calculateTranslation(
+                    frame.mainCircleRadiusCollapsed, iconSize, progress)
+
+            val left = if (isLeftIcon) {
+                centerX - iconSize / 2f - translation
+            } else {
+                centerX + iconSize / 2f + translation - iconWidth
+            }
+
+            matrices[index].apply {
+                reset()
+                setScale(iconWidth / iconSize, 1f)
+                postTranslate(left, centerY - iconSize / 2f)
+            }
+            shaders[index].setLocalMatrix(matrices[index])
+
+            val paint = paints[index]
+            paint.alpha = (255 * (1 - progress)).toInt()
+            canvas.drawRect(left, centerY - iconSize / 2f, left + iconWidth, centerY + iconSize / 2f, paint)
+        }
+    }
+
+    companion object {
+
+        private const val TAG = "IconDrawingBenchmark"
+
+        private const val SIZE = 200
+        private const val ICON_SIZE = 48
+        private const val MAIN_CIRCLE_RADIUS = 60
+        private const val ICONS_COUNT = 4
+        private const val STEPS = 30
+        private const val MAX_IMAGES = 2
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.animation.TimeInterpolator
+import android.view.animation.AccelerateDecelerateInterpolator
+import android.view.animation.DecelerateInterpolator
+import androidx.benchmark.junit4.BenchmarkRule
+import org.junit.Rule
+import org.junit.Test
+
+/**
+ * Compares framework interpolators with [LookupTableInterpolator] used by [CameraButton].
+ *
+ * Every iteration interpolates [STEPS] inputs spread over whole animation.
+ */
+class InterpolatorBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    //Keeps results alive so calls aren't optimized out
+    private var sink = 0f
+
+    @Test
+    fun benchmarkAccelerateDecelerate() {
+        measure(AccelerateDecelerateInterpolator())
+    }
+
+    @Test
+    fun benchmarkAccelerateDecelerateLookupTable() {
+        measure(LookupTableInterpolator.of(AccelerateDecelerateInterpolator()))
+    }
+
+    @Test
+    fun benchmarkDecelerate() {
+        measure(DecelerateInterpolator())
+    }
+
+    @Test
+    fun benchmarkDecelerateLookupTable() {
+        measure(LookupTableInterpolator.of(DecelerateInterpolator()))
+    }
+
+    @Test
+    fun benchmarkCubicBezier() {
+        measure(CUBIC_BEZIER)
+    }
+
+    @Test
+    fun benchmarkCubicBezierLookupTable() {
+        measure(LookupTableInterpolator.of(CUBIC_BEZIER))
+    }
+
+    private fun measure(interpolator: TimeInterpolator) {
+        val state = benchmarkRule.state
+        while (state.keepRunning()) {
+            for (step in 0 until STEPS) {
+                sink += interpolator.getInterpolation(step / STEPS.toFloat())
+            }
+        }
+    }
+
+    companion object {
+
+        private const val STEPS = 997
+
+        private val CUBIC_BEZIER = CubicBezierInterpolator(0.4f, 0f, 0.2f, 1f)
+    }
+}
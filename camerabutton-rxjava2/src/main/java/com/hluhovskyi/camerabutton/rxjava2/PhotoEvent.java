@@ -23,13 +23,27 @@ import com.hluhovskyi.camerabutton.CameraButton;
 public final class PhotoEvent {
 
     private final CameraButton button;
+    private final long downTime;
+    private final long eventTime;
+    private final long dispatchTimeNanos;
 
-    private PhotoEvent(CameraButton button) {
+    private PhotoEvent(CameraButton button, long downTime, long eventTime, long dispatchTimeNanos) {
         this.button = button;
+        this.downTime = downTime;
+        this.eventTime = eventTime;
+        this.dispatchTimeNanos = dispatchTimeNanos;
     }
 
     public static PhotoEvent create(@NonNull CameraButton button) {
-        return new PhotoEvent(button);
+        return new PhotoEvent(button, CameraButton.NO_EVENT_TIME, CameraButton.NO_EVENT_TIME, CameraButton.NO_EVENT_TIME);
+    }
+
+    public static PhotoEvent create(@NonNull CameraButton button,
+                                    long downTime,
+                                    long eventTime,
+                                    long dispatchTimeNanos) {
+
+        return new PhotoEvent(button, downTime, eventTime, dispatchTimeNanos);
     }
 
     @NonNull
@@ -37,6 +51,30 @@ public final class PhotoEvent {
         return button;
     }
 
+    /**
+     * @return {@link android.view.MotionEvent#getDownTime()} of the gesture
+     * or {@link CameraButton#NO_EVENT_TIME} if it is unknown
+     */
+    public long downTime() {
+        return downTime;
+    }
+
+    /**
+     * @return {@link android.view.MotionEvent#getEventTime()} of the event which caused this one
+     * or {@link CameraButton#NO_EVENT_TIME} if it isn't caused by touch
+     */
+    public long eventTime() {
+        return eventTime;
+    }
+
+    /**
+     * @return time of dispatching in {@link android.os.SystemClock#elapsedRealtimeNanos()} timebase
+     * or {@link CameraButton#NO_EVENT_TIME} if it is unknown
+     */
+    public long dispatchTimeNanos() {
+        return dispatchTimeNanos;
+    }
+
     public final CameraButton component1() {
         return view();
     }
@@ -37,10 +37,10 @@ final class PhotoEventObservable extends Observable<PhotoEvent> {
         }
         Listener listener = new Listener(button, observer);
         observer.onSubscribe(listener);
-        button.setOnPhotoEventListener(listener);
+        button.addOnPhotoEventListener(listener);
     }
 
-    static final class Listener extends MainThreadDisposable implements CameraButton.OnPhotoEventListener {
+    static final class Listener extends MainThreadDisposable implements CameraButton.OnTimedPhotoEventListener {
 
         private final CameraButton button;
         private final Observer<? super PhotoEvent> observer;
@@ -57,9 +57,16 @@ final class PhotoEventObservable extends Observable<PhotoEvent> {
             }
         }
 
+        @Override
+        public void onClick(long downTime, long eventTime, long dispatchTimeNanos) {
+            if (!isDisposed()) {
+                observer.onNext(PhotoEvent.create(button, downTime, eventTime, dispatchTimeNanos));
+            }
+        }
+
         @Override
         protected void onDispose() {
-            button.setOnPhotoEventListener(null);
+            button.removeOnPhotoEventListener(this);
         }
     }
 }
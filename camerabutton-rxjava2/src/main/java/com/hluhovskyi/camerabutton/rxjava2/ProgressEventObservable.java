@@ -37,7 +37,7 @@ final class ProgressEventObservable extends Observable<ProgressEvent> {
         }
         Listener listener = new Listener(button, observer);
         observer.onSubscribe(listener);
-        button.setOnProgressChangeListener(listener);
+        button.addOnProgressChangeListener(listener);
     }
 
     static final class Listener extends MainThreadDisposable implements CameraButton.OnProgressChangeListener {
@@ -59,7 +59,7 @@ final class ProgressEventObservable extends Observable<ProgressEvent> {
 
         @Override
         protected void onDispose() {
-            button.setOnProgressChangeListener(null);
+            button.removeOnProgressChangeListener(this);
         }
     }
 }
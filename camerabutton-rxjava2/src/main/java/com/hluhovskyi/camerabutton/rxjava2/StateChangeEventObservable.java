@@ -39,7 +39,7 @@ final class StateChangeEventObservable extends Observable<StateChangeEvent> {
         }
         Listener listener = new Listener(button, observer);
         observer.onSubscribe(listener);
-        button.setOnStateChangeListener(listener);
+        button.addOnStateChangeListener(listener);
     }
 
     static final class Listener extends MainThreadDisposable implements CameraButton.OnStateChangeListener {
@@ -61,7 +61,7 @@ final class StateChangeEventObservable extends Observable<StateChangeEvent> {
 
         @Override
         protected void onDispose() {
-            button.setOnStateChangeListener(null);
+            button.removeOnStateChangeListener(this);
         }
     }
 }
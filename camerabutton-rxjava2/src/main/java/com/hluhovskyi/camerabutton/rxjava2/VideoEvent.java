@@ -25,6 +25,24 @@ public abstract class VideoEvent {
     @NonNull
     public abstract CameraButton view();
 
+    /**
+     * @return {@link android.view.MotionEvent#getDownTime()} of the gesture
+     * or {@link CameraButton#NO_EVENT_TIME} if it is unknown
+     */
+    public abstract long downTime();
+
+    /**
+     * @return {@link android.view.MotionEvent#getEventTime()} of the event which caused this one
+     * or {@link CameraButton#NO_EVENT_TIME} if it isn't caused by touch
+     */
+    public abstract long eventTime();
+
+    /**
+     * @return time of dispatching in {@link android.os.SystemClock#elapsedRealtimeNanos()} timebase
+     * or {@link CameraButton#NO_EVENT_TIME} if it is unknown
+     */
+    public abstract long dispatchTimeNanos();
+
     public final CameraButton component1() {
         return view();
     }
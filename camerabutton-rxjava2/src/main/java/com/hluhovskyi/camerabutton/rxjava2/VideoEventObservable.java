@@ -37,10 +37,10 @@ final class VideoEventObservable extends Observable<VideoEvent> {
         }
         Listener listener = new Listener(button, observer);
         observer.onSubscribe(listener);
-        button.setOnVideoEventListener(listener);
+        button.addOnVideoEventListener(listener);
     }
 
-    static final class Listener extends MainThreadDisposable implements CameraButton.OnVideoEventListener {
+    static final class Listener extends MainThreadDisposable implements CameraButton.OnTimedVideoEventListener {
 
         private final CameraButton button;
         private final Observer<? super VideoEvent> observer;
@@ -57,6 +57,13 @@ final class VideoEventObservable extends Observable<VideoEvent> {
             }
         }
 
+        @Override
+        public void onStart(long downTime, long eventTime, long dispatchTimeNanos) {
+            if (!isDisposed()) {
+                observer.onNext(VideoStartEvent.create(button, downTime, eventTime, dispatchTimeNanos));
+            }
+        }
+
         @Override
         public void onFinish() {
             if (!isDisposed()) {
@@ -64,6 +71,13 @@ final class VideoEventObservable extends Observable<VideoEvent> {
             }
         }
 
+        @Override
+        public void onFinish(long downTime, long eventTime, long dispatchTimeNanos) {
+            if (!isDisposed()) {
+                observer.onNext(VideoFinishEvent.create(button, downTime, eventTime, dispatchTimeNanos));
+            }
+        }
+
         @Override
         public void onCancel() {
             if (!isDisposed()) {
@@ -71,9 +85,16 @@ final class VideoEventObservable extends Observable<VideoEvent> {
             }
         }
 
+        @Override
+        public void onCancel(long downTime, long eventTime, long dispatchTimeNanos) {
+            if (!isDisposed()) {
+                observer.onNext(VideoCancelEvent.create(button, downTime, eventTime, dispatchTimeNanos));
+            }
+        }
+
         @Override
         protected void onDispose() {
-            button.setOnVideoEventListener(null);
+            button.removeOnVideoEventListener(this);
         }
     }
 }
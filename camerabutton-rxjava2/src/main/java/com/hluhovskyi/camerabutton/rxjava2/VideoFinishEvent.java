@@ -23,13 +23,27 @@ import com.hluhovskyi.camerabutton.CameraButton;
 public final class VideoFinishEvent extends VideoEvent {
 
     private final CameraButton button;
+    private final long downTime;
+    private final long eventTime;
+    private final long dispatchTimeNanos;
 
-    private VideoFinishEvent(CameraButton button) {
+    private VideoFinishEvent(CameraButton button, long downTime, long eventTime, long dispatchTimeNanos) {
         this.button = button;
+        this.downTime = downTime;
+        this.eventTime = eventTime;
+        this.dispatchTimeNanos = dispatchTimeNanos;
     }
 
     public static VideoFinishEvent create(@NonNull CameraButton button) {
-        return new VideoFinishEvent(button);
+        return new VideoFinishEvent(button, CameraButton.NO_EVENT_TIME, CameraButton.NO_EVENT_TIME, CameraButton.NO_EVENT_TIME);
+    }
+
+    public static VideoFinishEvent create(@NonNull CameraButton button,
+                                          long downTime,
+                                          long eventTime,
+                                          long dispatchTimeNanos) {
+
+        return new VideoFinishEvent(button, downTime, eventTime, dispatchTimeNanos);
     }
 
     @NonNull
@@ -37,4 +51,19 @@ public final class VideoFinishEvent extends VideoEvent {
     public CameraButton view() {
         return button;
     }
+
+    @Override
+    public long downTime() {
+        return downTime;
+    }
+
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
+    @Override
+    public long dispatchTimeNanos() {
+        return dispatchTimeNanos;
+    }
 }
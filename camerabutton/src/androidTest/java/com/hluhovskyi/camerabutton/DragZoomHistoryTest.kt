@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.view.MotionEvent
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Historical samples of [MotionEvent] are backed by native code,
+ * so batching is checked on device.
+ */
+class DragZoomHistoryTest {
+
+    @Test
+    fun testHistoricalSamplesAreApplied() {
+        val zoom = DragZoom().apply {
+            distance = DISTANCE
+            start(START_Y)
+        }
+
+        //Finger dips below start point and comes back within one batch
+        val event = MotionEvent.obtain(0, 0, MotionEvent.ACTION_MOVE, 0f, START_Y + DISTANCE / 2f, 0)
+        event.addBatch(FRAME_MILLIS, 0f, START_Y, 1f, 1f, 0)
+
+        assertEquals(0.5f, zoom.add(event), DELTA)
+        event.recycle()
+    }
+
+    companion object {
+
+        private const val DELTA = 0.0001f
+        private const val DISTANCE = 100
+        private const val START_Y = 500f
+        private const val FRAME_MILLIS = 16L
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.os.Debug
+import android.os.SystemClock
+import android.support.test.InstrumentationRegistry
+import android.support.test.rule.ActivityTestRule
+import android.view.MotionEvent
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+
+/**
+ * Checks that full video gesture (press, expanding, recording, collapsing)
+ * doesn't allocate after warm-up.
+ *
+ * Frames are driven manually inside single main thread block,
+ * so nothing else is executed on main thread while allocations are counted.
+ */
+class GestureAllocationTest {
+
+    @Rule
+    @JvmField
+    val activityRule = ActivityTestRule(CameraButtonActivity::class.java)
+
+    @Test
+    @Suppress("DEPRECATION")
+    fun testGestureDoesNotAllocate() {
+        val button = activityRule.activity.button
+        var allocations = -1
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync {
+            button.apply {
+                expandDuration = EXPAND_DURATION
+                collapseDuration = COLLAPSE_DURATION
+                videoDuration = VIDEO_DURATION
+            }
+        }
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync {
+            val time = SystemClock.uptimeMillis()
+            val down = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN,
+                    button.width / 2f, button.height / 2f, 0)
+            val up = MotionEvent.obtain(time, time, MotionEvent.ACTION_UP,
+                    button.width / 2f, button.height / 2f, 0)
+
+            repeat(WARM_UP_GESTURES) { performGesture(button, down, up) }
+
+            Debug.resetThreadAllocCount()
+            Debug.startAllocCounting()
+            performGesture(button, down, up)
+            Debug.stopAllocCounting()
+            allocations = Debug.getThreadAllocCount()
+
+            down.recycle()
+            up.recycle()
+        }
+
+        assertEquals(0, allocations)
+    }
+
+    private fun performGesture(button: CameraButton, down: MotionEvent, up: MotionEvent) {
+        var frameTime = SystemClock.elapsedRealtimeNanos()
+
+        button.onTouchEvent(down)
+        //Expanding is started right away instead of waiting for delayed message
+        button.removeCallbacks(button.mExpandMessage)
+        button.mExpandMessage.run()
+
+        var frames = 0
+        while (button.state != State.EXPANDED && frames++ < MAX_FRAMES) {
+            button.mAnimator.doFrame(frameTime)
+            frameTime += FRAME_NANOS
+        }
+
+        repeat(RECORDING_FRAMES) {
+            button.mAnimator.doFrame(frameTime)
+            frameTime += FRAME_NANOS
+        }
+
+        button.onTouchEvent(up)
+
+        frames = 0
+        while (button.state != State.DEFAULT && frames++ < MAX_FRAMES) {
+            button.mAnimator.doFrame(frameTime)
+            frameTime += FRAME_NANOS
+        }
+
+        assertEquals(State.DEFAULT, button.state)
+    }
+
+    companion object {
+
+        private const val EXPAND_DURATION = 100L
+        private const val COLLAPSE_DURATION = 100L
+        private const val VIDEO_DURATION = 10000L
+
+        private const val FRAME_NANOS = 16000000L
+        private const val RECORDING_FRAMES = 10
+        private const val MAX_FRAMES = 100
+        private const val WARM_UP_GESTURES = 2
+    }
+}
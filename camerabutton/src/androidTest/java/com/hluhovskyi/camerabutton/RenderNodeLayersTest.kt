@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Color
+import android.os.Build
+import android.support.test.filters.SdkSuppress
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * [android.graphics.RenderNode] is backed by native code, so keys of layers are checked on device.
+ */
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.Q)
+class RenderNodeLayersTest {
+
+    private val layers = RenderNodeLayers().apply { setSize(SIZE, SIZE) }
+    private val icons = Any()
+
+    @Test
+    fun testUnchangedIconsAreNotRecordedAgain() {
+        assertTrue(recordIcons(RADIUS, ICON_SIZE))
+        assertFalse(recordIcons(RADIUS, ICON_SIZE))
+    }
+
+    @Test
+    fun testGeometryChangeRecordsIconsAgain() {
+        recordIcons(RADIUS, ICON_SIZE)
+
+        assertTrue(recordIcons(RADIUS * 2, ICON_SIZE))
+        assertTrue(recordIcons(RADIUS * 2, ICON_SIZE * 2))
+        assertFalse(recordIcons(RADIUS * 2, ICON_SIZE * 2))
+    }
+
+    /**
+     * @return true if icons layer is recorded
+     */
+    private fun recordIcons(radius: Int, iconSize: Int): Boolean {
+        val canvas = layers.beginIcons(POSITION, radius, iconSize, icons) ?: return false
+        canvas.drawColor(Color.WHITE)
+        layers.endIcons()
+        return true
+    }
+
+    companion object {
+
+        private const val SIZE = 200
+        private const val RADIUS = 50
+        private const val ICON_SIZE = 24
+        private const val POSITION = 0f
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.Settings;
+import android.support.annotation.RequiresApi;
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+/**
+ * Single frame-callback engine which drives all animations of {@link CameraButton}.
+ * <p>
+ * Every animated value is a track. All running tracks are advanced from the same frame timestamp
+ * and {@link Listener#onAnimationFrame(int)} is invoked once per frame, so the button
+ * can issue a single invalidation for everything which is changed during the frame.
+ * Tracks are preallocated and reused, so starting an animation doesn't allocate.
+ * <p>
+ * Timed track isn't an animation but a value which follows passed {@link Clock},
+ * frames only sample it. Such track isn't affected by duration scale or dropped frames.
+ * <p>
+ * Track can have minimal frame interval. While only such tracks are running
+ * next frame is requested after the shortest of their intervals instead of the next vsync.
+ */
+final class ButtonAnimator {
+
+    interface Listener {
+
+        /**
+         * Invoked once per frame after all running tracks are advanced
+         *
+         * @param changedTracks bit mask of {@link #flagOf(int)} of tracks which values are changed
+         */
+        void onAnimationFrame(int changedTracks);
+
+        /**
+         * Invoked when track reaches its end value. Not invoked for cancelled tracks.
+         */
+        void onAnimationEnd(int track);
+    }
+
+    static final int TRACK_EXPANDING = 0;
+    static final int TRACK_PROGRESS = 1;
+    static final int TRACK_ICONS = 2;
+
+    private static final int TRACKS_COUNT = 3;
+    private static final long NOT_STARTED = -1;
+
+    private final Track[] mTracks = new Track[TRACKS_COUNT];
+    private final FrameScheduler mScheduler;
+    private final Listener mListener;
+    private float mDurationScale = 1f;
+
+    ButtonAnimator(Listener listener) {
+        mListener = listener;
+        for (int i = 0; i < TRACKS_COUNT; i++) {
+            mTracks[i] = new Track();
+        }
+        mScheduler = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN
+                ? new ChoreographerFrameScheduler(this)
+                : new HandlerFrameScheduler(this);
+    }
+
+    static int flagOf(int track) {
+        return 1 << track;
+    }
+
+    /**
+     * Starts track from the next frame. Already running track is restarted.
+     *
+     * @param durationMillis duration of the animation, it is multiplied by current duration scale
+     */
+    void start(int track, float from, float to, long durationMillis, Interpolator interpolator) {
+        Track t = mTracks[track];
+        t.mFrom = from;
+        t.mTo = to;
+        t.mValue = from;
+        t.mDurationNanos = (long) (durationMillis * mDurationScale * 1000000L);
+        t.mInterpolator = interpolator;
+        t.mClock = null;
+        t.mStartNanos = NOT_STARTED;
+        t.mFrameIntervalNanos = 0;
+        t.mIsRunning = true;
+        t.mIsEndPending = false;
+        mScheduler.schedule(0);
+    }
+
+    /**
+     * Starts track which linearly goes from 0 to 1 according to passed clock
+     * starting from this moment.
+     *
+     * @param durationMillis exact duration of the track, duration scale isn't applied
+     */
+    void startTimed(int track, Clock clock, long durationMillis) {
+        Track t = mTracks[track];
+        t.mFrom = 0f;
+        t.mTo = 1f;
+        t.mValue = 0f;
+        t.mDurationNanos = durationMillis * 1000000L;
+        t.mInterpolator = Interpolators.getLinearInterpolator();
+        t.mClock = clock;
+        t.mStartNanos = clock.nanoTime();
+        t.mFrameIntervalNanos = 0;
+        t.mIsRunning = true;
+        t.mIsEndPending = false;
+        mScheduler.schedule(0);
+    }
+
+    /**
+     * Sets how often running track needs frames. Zero interval means every frame.
+     * Applied starting from the next frame, reset when track is started again.
+     */
+    void setFrameInterval(int track, long intervalNanos) {
+        mTracks[track].mFrameIntervalNanos = intervalNanos;
+    }
+
+    void cancel(int track) {
+        mTracks[track].mIsRunning = false;
+        mTracks[track].mIsEndPending = false;
+        if (!isRunning()) {
+            mScheduler.cancel();
+        }
+    }
+
+    void cancelAll() {
+        for (Track track : mTracks) {
+            track.mIsRunning = false;
+            track.mIsEndPending = false;
+        }
+        mScheduler.cancel();
+    }
+
+    /**
+     * @return time at which track is started, in timebase of its clock for timed track
+     */
+    long getStartNanos(int track) {
+        return mTracks[track].mStartNanos;
+    }
+
+    /**
+     * @return how much time is left until timed track ends according to passed clock
+     */
+    long getRemainingNanos(int track, Clock clock) {
+        Track t = mTracks[track];
+        return t.mStartNanos + t.mDurationNanos - clock.nanoTime();
+    }
+
+    boolean isRunning(int track) {
+        return mTracks[track].mIsRunning;
+    }
+
+    float getValue(int track) {
+        return mTracks[track].mValue;
+    }
+
+    /**
+     * Reads system animator duration scale, so cosmetic animations respect
+     * developer options and accessibility settings the same way {@link ValueAnimator} does.
+     */
+    void updateDurationScale(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            mDurationScale = ValueAnimator.getDurationScale();
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            mDurationScale = Settings.Global.getFloat(context.getContentResolver(),
+                    Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        }
+    }
+
+    void doFrame(long frameTimeNanos) {
+        int changedTracks = 0;
+
+        for (int i = 0; i < TRACKS_COUNT; i++) {
+            Track track = mTracks[i];
+            if (!track.mIsRunning) {
+                continue;
+            }
+            if (track.mStartNanos == NOT_STARTED) {
+                track.mStartNanos = frameTimeNanos;
+            }
+            if (track.advance(frameTimeNanos)) {
+                track.mIsRunning = false;
+                track.mIsEndPending = true;
+            }
+            changedTracks |= flagOf(i);
+        }
+
+        if (changedTracks != 0) {
+            mListener.onAnimationFrame(changedTracks);
+        }
+
+        //Ended tracks are reported after the frame, so listener can chain next track.
+        //Track which is cancelled or restarted in the meantime isn't reported.
+        for (int i = 0; i < TRACKS_COUNT; i++) {
+            Track track = mTracks[i];
+            if (track.mIsEndPending) {
+                track.mIsEndPending = false;
+                mListener.onAnimationEnd(i);
+            }
+        }
+
+        if (isRunning()) {
+            mScheduler.schedule(getNextFrameDelayMillis());
+        }
+    }
+
+    /**
+     * @return delay of the next frame, zero if any running track needs every frame
+     */
+    long getNextFrameDelayMillis() {
+        long intervalNanos = Long.MAX_VALUE;
+        for (Track track : mTracks) {
+            if (track.mIsRunning) {
+                intervalNanos = Math.min(intervalNanos, track.mFrameIntervalNanos);
+            }
+        }
+        return intervalNanos / 1000000L;
+    }
+
+    private boolean isRunning() {
+        for (Track track : mTracks) {
+            if (track.mIsRunning) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Track {
+
+        float mFrom;
+        float mTo;
+        float mValue;
+        long mStartNanos;
+        long mDurationNanos;
+        long mFrameIntervalNanos;
+        Interpolator mInterpolator;
+        Clock mClock;
+        boolean mIsRunning;
+        boolean mIsEndPending;
+
+        /**
+         * @return true if track reaches its end value
+         */
+        boolean advance(long frameTimeNanos) {
+            long timeNanos = mClock != null ? mClock.nanoTime() : frameTimeNanos;
+            float fraction = mDurationNanos <= 0
+                    ? 1f
+                    : Math.max(0f, Math.min(1f, (float) (timeNanos - mStartNanos) / mDurationNanos));
+
+            mValue = mFrom + (mTo - mFrom) * mInterpolator.getInterpolation(fraction);
+            return fraction >= 1f;
+        }
+    }
+
+    private abstract static class FrameScheduler {
+
+        final ButtonAnimator mAnimator;
+        boolean mIsScheduled = false;
+        long mDelayMillis;
+
+        FrameScheduler(ButtonAnimator animator) {
+            mAnimator = animator;
+        }
+
+        /**
+         * Requests frame not earlier than after passed delay.
+         * Already requested delayed frame is requested again only if it becomes urgent.
+         */
+        final void schedule(long delayMillis) {
+            if (mIsScheduled && (mDelayMillis == 0 || delayMillis != 0)) {
+                return;
+            }
+            if (mIsScheduled) {
+                remove();
+            }
+            mIsScheduled = true;
+            mDelayMillis = delayMillis;
+            post(delayMillis);
+        }
+
+        final void cancel() {
+            if (mIsScheduled) {
+                mIsScheduled = false;
+                remove();
+            }
+        }
+
+        final void dispatchFrame(long frameTimeNanos) {
+            mIsScheduled = false;
+            mAnimator.doFrame(frameTimeNanos);
+        }
+
+        abstract void post(long delayMillis);
+
+        abstract void remove();
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerFrameScheduler extends FrameScheduler
+            implements Choreographer.FrameCallback {
+
+        ChoreographerFrameScheduler(ButtonAnimator animator) {
+            super(animator);
+        }
+
+        @Override
+        void post(long delayMillis) {
+            Choreographer.getInstance().postFrameCallbackDelayed(this, delayMillis);
+        }
+
+        @Override
+        void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * Fallback for API 15 which doesn't have {@link Choreographer} in public API.
+     * Frames are emulated with delayed messages on main thread.
+     */
+    private static final class HandlerFrameScheduler extends FrameScheduler implements Runnable {
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        HandlerFrameScheduler(ButtonAnimator animator) {
+            super(animator);
+        }
+
+        @Override
+        void post(long delayMillis) {
+            mHandler.postDelayed(this, Math.max(delayMillis, ValueAnimator.getFrameDelay()));
+        }
+
+        @Override
+        void remove() {
+            mHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            dispatchFrame(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hluhovskyi.camerabutton;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Px;
+
+/**
+ * Read-only description of a single frame of {@link CameraButton} passed to {@link ButtonRenderer}.
+ * <p>
+ * Every value is already interpolated according to current expanding and progress factors.
+ * Instance is reused between frames, so renderers must not keep reference to it.
+ */
+public final class ButtonFrame {
+
+    int mWidth;
+    int mHeight;
+
+    float mExpandingFactor;
+    float mProgressFactor;
+    float mGradientRotation;
+    float mIconPosition = CameraButton.NO_ICON;
+
+    float mStrokeRadius;
+    float mProgressArcWidth;
+    float mMainCircleRadius;
+    int mMainCircleRadiusCollapsed;
+    int mIconSize;
+
+    int mStrokeColor;
+    int mMainCircleColor;
+    int[] mProgressArcColors;
+
+    ButtonFrame() {
+    }
+
+    @Px
+    public int getWidth() {
+        return mWidth;
+    }
+
+    @Px
+    public int getHeight() {
+        return mHeight;
+    }
+
+    @Px
+    public int getCenterX() {
+        return mWidth / 2;
+    }
+
+    @Px
+    public int getCenterY() {
+        return mHeight / 2;
+    }
+
+    /**
+     * @return 0f when button is collapsed and 1f when it is fully expanded
+     */
+    @FloatRange(from = 0, to = 1)
+    public float getExpandingFactor() {
+        return mExpandingFactor;
+    }
+
+    /**
+     * @return progress of video recording
+     */
+    @FloatRange(from = 0, to = 1)
+    public float getProgressFactor() {
+        return mProgressFactor;
+    }
+
+    /**
+     * @return rotation of progress arc gradient in degrees
+     */
+    public float getGradientRotation() {
+        return mGradientRotation;
+    }
+
+    /**
+     * @return current position of the icons or {@link CameraButton#NO_ICON}
+     */
+    public float getIconPosition() {
+        return mIconPosition;
+    }
+
+    /**
+     * @return current outer radius of the stroke
+     */
+    public float getStrokeRadius() {
+        return mStrokeRadius;
+    }
+
+    /**
+     * @return current width of the progress arc
+     */
+    public float getProgressArcWidth() {
+        return mProgressArcWidth;
+    }
+
+    /**
+     * @return current radius of the main circle
+     */
+    public float getMainCircleRadius() {
+        return mMainCircleRadius;
+    }
+
+    /**
+     * @return radius of the main circle when button is collapsed
+     */
+    @Px
+    public int getMainCircleRadiusCollapsed() {
+        return mMainCircleRadiusCollapsed;
+    }
+
+    @Px
+    public int getIconSize() {
+        return mIconSize;
+    }
+
+    /**
+     * @return stroke color taking into account whatever button is pressed
+     */
+    @ColorInt
+    public int getStrokeColor() {
+        return mStrokeColor;
+    }
+
+    /**
+     * @return main circle color taking into account whatever button is pressed
+     */
+    @ColorInt
+    public int getMainCircleColor() {
+        return mMainCircleColor;
+    }
+
+    /**
+     * The same instance is returned until colors are changed,
+     * so it can be used as a key for derived objects. It must not be modified.
+     *
+     * @return colors of progress arc gradient
+     */
+    @ColorInt
+    @NonNull
+    public int[] getProgressArcColors() {
+        return mProgressArcColors;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+/**
+ * Per-size constants of {@link CameraButton}.
+ * <p>
+ * Geometry is updated only when size of the view or one of its dimensions is changed,
+ * so drawing has to interpolate between precomputed collapsed and expanded values only.
+ */
+final class ButtonGeometry {
+
+    int mWidth;
+    int mHeight;
+    int mCenterX;
+    int mCenterY;
+
+    //Radius of the stroke when button is fully expanded
+    int mRadius;
+    int mStrokeRadiusCollapsed;
+
+    int mMainCircleRadius;
+    int mMainCircleRadiusExpanded;
+    int mStrokeWidth;
+    int mProgressArcWidth;
+    int mIconSize;
+
+    private boolean mIsValidated = false;
+
+    void update(int width,
+                int height,
+                int mainCircleRadius,
+                int mainCircleRadiusExpanded,
+                int strokeWidth,
+                int progressArcWidth,
+                int iconSize) {
+
+        mWidth = width;
+        mHeight = height;
+        mCenterX = width / 2;
+        mCenterY = height / 2;
+        mRadius = Math.min(mCenterX, mCenterY);
+
+        mMainCircleRadius = mainCircleRadius;
+        mMainCircleRadiusExpanded = mainCircleRadiusExpanded;
+        mStrokeWidth = strokeWidth;
+        mProgressArcWidth = progressArcWidth;
+        mIconSize = iconSize;
+        mStrokeRadiusCollapsed = mainCircleRadius + strokeWidth;
+
+        mIsValidated = false;
+    }
+
+    float getStrokeRadius(float expandingFactor) {
+        return mStrokeRadiusCollapsed - (mStrokeRadiusCollapsed - mRadius) * expandingFactor;
+    }
+
+    float getMainCircleRadius(float expandingFactor) {
+        return mMainCircleRadius - (mMainCircleRadius - mMainCircleRadiusExpanded) * expandingFactor;
+    }
+
+    float getProgressArcWidth(float expandingFactor) {
+        return mProgressArcWidth * Interpolators.interpolateArcWidth(expandingFactor);
+    }
+
+    /**
+     * @return how many pixels the longest moving edge of expanded button travels
+     * while progress goes from 0 to 1: either end of the arc or its rotating gradient
+     */
+    float getProgressPathLength(float gradientRotationMultiplier) {
+        float arcRadius = mRadius - mProgressArcWidth / 2f;
+        return (float) (2 * Math.PI * Math.max(arcRadius, mRadius * gradientRotationMultiplier));
+    }
+
+    /**
+     * @return true if current geometry has been already validated since the last update
+     */
+    boolean isValidated() {
+        return mIsValidated;
+    }
+
+    /**
+     * Checks that all dimensions fit into the size of the view.
+     *
+     * @throws ConsistencyValidationException if some dimension doesn't fit
+     */
+    void validate() {
+        int width = mWidth;
+        int height = mHeight;
+        if (mMainCircleRadius > Math.min(width, height)) {
+            throw new ConsistencyValidationException(
+                    "MainCircleRadius can't be greater than width or height. " +
+                            "MainCircleRadius=" + mMainCircleRadius + "px, width=" + width + "px, height=" + height + "px");
+        }
+        if (mMainCircleRadius + mStrokeWidth > Math.min(width, height)) {
+            throw new ConsistencyValidationException(
+                    "Sum of MainCircleRadius and StrokeWidth can't be greater than width or height. " +
+                            "MainCircleRadius=" + mMainCircleRadius + "px, StrokeWidth=" + mStrokeWidth + "px, width=" + width + "px, height=" + height + "px");
+        }
+        if (mMainCircleRadiusExpanded > Math.min(width, height)) {
+            throw new ConsistencyValidationException(
+                    "MainCircleRadiusExpanded can't be greater than width or height. " +
+                            "MainCircleRadiusExpanded=" + mMainCircleRadiusExpanded + "px, width=" + width + "px, height=" + height + "px");
+        }
+        if (mMainCircleRadiusExpanded + mProgressArcWidth > Math.min(width, height)) {
+            throw new ConsistencyValidationException(
+                    "Sum of MainCircleRadius and ProgressArcWidth can't be greater than width or height. " +
+                            "MainCircleRadius=" + mMainCircleRadius + "px, ProgressArcWidth=" + mProgressArcWidth + "px, width=" + width + "px, height=" + height + "px");
+        }
+        if (mIconSize / Math.sqrt(2) > mMainCircleRadius) {
+            throw new ConsistencyValidationException(
+                    "Icon can't be inscribed in the main button area. " +
+                            "MainCircleRadius=" + mMainCircleRadius + "px, IconSize=" + mIconSize + "px");
+        }
+        mIsValidated = true;
+    }
+}
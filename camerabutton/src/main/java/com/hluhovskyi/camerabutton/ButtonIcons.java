@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Px;
+
+/**
+ * Icons of {@link CameraButton} already scaled to the icon size.
+ * Source icons are retained, so icons can be scaled again once the icon size is changed.
+ * <p>
+ * Icons are kept either as separate bitmaps or packed into a single atlas bitmap,
+ * see {@link CameraButton#setIconAtlasEnabled(boolean)}. Renderers draw them
+ * through {@link #draw(Canvas, int, RectF, Paint)} and don't depend on the way they are stored.
+ */
+public final class ButtonIcons {
+
+    //Transparent gutter between icons in the atlas, so filtering doesn't bleed neighbours
+    private static final int ATLAS_PADDING = 1;
+
+    private final int mCount;
+    private final int mIconSize;
+    private final Bitmap[] mSources;
+
+    //Separate mode
+    private final Bitmap[] mBitmaps;
+
+    //Atlas mode
+    private final Bitmap mAtlas;
+    private final Rect[] mBounds;
+
+    private ButtonIcons(Bitmap[] sources, Bitmap[] bitmaps, int iconSize) {
+        mCount = bitmaps.length;
+        mIconSize = iconSize;
+        mSources = sources;
+        mBitmaps = bitmaps;
+        mAtlas = null;
+        mBounds = null;
+    }
+
+    private ButtonIcons(Bitmap[] sources, Bitmap atlas, Rect[] bounds, int iconSize) {
+        mCount = bounds.length;
+        mIconSize = iconSize;
+        mSources = sources;
+        mBitmaps = null;
+        mAtlas = atlas;
+        mBounds = bounds;
+    }
+
+    /**
+     * Scales passed icons to the icon size and stores them in the requested way.
+     */
+    static ButtonIcons create(Bitmap[] icons, int iconSize, boolean packIntoAtlas) {
+        Bitmap[] sources = icons.clone();
+        return packIntoAtlas
+                ? createAtlas(sources, iconSize)
+                : createSeparate(sources, iconSize);
+    }
+
+    private static ButtonIcons createSeparate(Bitmap[] icons, int iconSize) {
+        Bitmap[] scaled = new Bitmap[icons.length];
+        for (int i = 0; i < icons.length; i++) {
+            scaled[i] = Bitmap.createScaledBitmap(icons[i], iconSize, iconSize, false);
+        }
+        return new ButtonIcons(icons, scaled, iconSize);
+    }
+
+    /**
+     * Packs icons into a square-ish grid, so the atlas stays within texture size limits
+     * when number of icons grows.
+     */
+    private static ButtonIcons createAtlas(Bitmap[] icons, int iconSize) {
+        int columns = (int) Math.ceil(Math.sqrt(icons.length));
+        int rows = (icons.length + columns - 1) / columns;
+        int cellSize = iconSize + ATLAS_PADDING * 2;
+
+        Bitmap atlas = Bitmap.createBitmap(columns * cellSize, rows * cellSize, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(atlas);
+        Rect[] bounds = new Rect[icons.length];
+
+        for (int i = 0; i < icons.length; i++) {
+            int left = (i % columns) * cellSize + ATLAS_PADDING;
+            int top = (i / columns) * cellSize + ATLAS_PADDING;
+            bounds[i] = new Rect(left, top, left + iconSize, top + iconSize);
+            canvas.drawBitmap(icons[i], null, bounds[i], null);
+        }
+
+        return new ButtonIcons(icons, atlas, bounds, iconSize);
+    }
+
+    /**
+     * @return icons stored in the requested way, the same instance if nothing has to be changed
+     */
+    ButtonIcons repack(boolean packIntoAtlas) {
+        if (isAtlas() == packIntoAtlas) {
+            return this;
+        }
+        if (packIntoAtlas) {
+            return createAtlas(mSources, mIconSize);
+        }
+
+        Bitmap[] bitmaps = new Bitmap[mCount];
+        for (int i = 0; i < mCount; i++) {
+            Rect bounds = mBounds[i];
+            bitmaps[i] = Bitmap.createBitmap(mAtlas, bounds.left, bounds.top, bounds.width(), bounds.height());
+        }
+        return new ButtonIcons(mSources, bitmaps, mIconSize);
+    }
+
+    /**
+     * @return icons scaled from the sources to passed size, the same instance if size isn't changed
+     */
+    ButtonIcons resize(int iconSize) {
+        if (iconSize == mIconSize) {
+            return this;
+        }
+        return isAtlas()
+                ? createAtlas(mSources, iconSize)
+                : createSeparate(mSources, iconSize);
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    @Px
+    public int getIconSize() {
+        return mIconSize;
+    }
+
+    /**
+     * @return true if all icons are packed into a single bitmap
+     */
+    public boolean isAtlas() {
+        return mAtlas != null;
+    }
+
+    /**
+     * Draws the icon scaled to fill destination rect
+     *
+     * @param index index of the icon
+     * @param dst   area where icon has to be drawn
+     * @param paint paint used for drawing, may be null
+     */
+    public void draw(@NonNull Canvas canvas, int index, @NonNull RectF dst, @Nullable Paint paint) {
+        if (mAtlas != null) {
+            canvas.drawBitmap(mAtlas, mBounds[index], dst, paint);
+        } else {
+            canvas.drawBitmap(mBitmaps[index], null, dst, paint);
+        }
+    }
+}
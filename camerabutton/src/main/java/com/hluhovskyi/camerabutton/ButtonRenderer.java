@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Strategy used by {@link CameraButton} to draw its layers.
+ * <p>
+ * Layers are drawn in the following order: stroke, progress arc, main circle, icons.
+ * Every layer can be recorded and cached separately, so implementation should draw
+ * only corresponding layer inside every method and rely only on passed {@link ButtonFrame}.
+ * <p>
+ * Renderers keep own drawing state, so single instance can't be shared between buttons.
+ *
+ * @see DefaultButtonRenderer
+ * @see FlatButtonRenderer
+ * @see CameraButton#setRenderer(ButtonRenderer)
+ */
+public interface ButtonRenderer {
+
+    /**
+     * Invoked when icons of the button are changed
+     *
+     * @param icons new icons already scaled to {@link ButtonFrame#getIconSize()}
+     *              or null if icons are cleared
+     */
+    void onIconsChanged(@Nullable ButtonIcons icons);
+
+    /**
+     * Draws stroke circle around main circle
+     */
+    void drawStroke(@NonNull Canvas canvas, @NonNull ButtonFrame frame);
+
+    /**
+     * Draws progress arc. Invoked only when progress arc is visible.
+     */
+    void drawProgressArc(@NonNull Canvas canvas, @NonNull ButtonFrame frame);
+
+    /**
+     * Draws main (inner) circle of the button
+     */
+    void drawMainCircle(@NonNull Canvas canvas, @NonNull ButtonFrame frame);
+
+    /**
+     * Draws icons inside main circle. Invoked only when icons are set and positioned.
+     */
+    void drawIcons(@NonNull Canvas canvas, @NonNull ButtonFrame frame);
+}
@@ -16,22 +16,16 @@
 
 package com.hluhovskyi.camerabutton;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ValueAnimator;
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.graphics.BitmapShader;
 import android.graphics.Canvas;
-import android.graphics.LinearGradient;
-import android.graphics.Matrix;
-import android.graphics.Paint;
-import android.graphics.RectF;
-import android.graphics.Shader;
+import android.graphics.Rect;
 import android.os.Build;
+import android.os.SystemClock;
 import android.support.annotation.ColorInt;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.FloatRange;
@@ -43,18 +37,46 @@ import android.support.annotation.Px;
 import android.support.annotation.RequiresApi;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.KeyEvent;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.animation.Interpolator;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
-import static com.hluhovskyi.camerabutton.CameraButton.Action.CLICK;
+import static com.hluhovskyi.camerabutton.ButtonAnimator.TRACK_EXPANDING;
+import static com.hluhovskyi.camerabutton.ButtonAnimator.TRACK_ICONS;
+import static com.hluhovskyi.camerabutton.ButtonAnimator.TRACK_PROGRESS;
+import static com.hluhovskyi.camerabutton.ButtonAnimator.flagOf;
 import static com.hluhovskyi.camerabutton.CameraButton.State.DEFAULT;
 import static com.hluhovskyi.camerabutton.CameraButton.State.EXPANDED;
 import static com.hluhovskyi.camerabutton.CameraButton.State.PRESSED;
 import static com.hluhovskyi.camerabutton.CameraButton.State.START_COLLAPSING;
 import static com.hluhovskyi.camerabutton.CameraButton.State.START_EXPANDING;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_ABORT_PRESS;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_CANCEL;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_CLICK;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_COLLAPSE;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_EXPAND;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_IGNORE;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_PRESS;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.COMMAND_RELEASE_HOLD;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_PHOTO_CLICK;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_PRECAPTURE_ABORT;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_PRESSED_STATE;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_STATE;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_VIDEO_CANCEL;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_VIDEO_FINISH;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_VIDEO_START;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_WARM_UP;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.EVENT_WARM_UP_ABORT;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.GESTURE_CANCEL;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.GESTURE_CLICK;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.GESTURE_PRESS;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.GESTURE_RELEASE_INSIDE;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.GESTURE_RELEASE_OUTSIDE;
+import static com.hluhovskyi.camerabutton.CameraButtonStateMachine.GESTURE_TOGGLE;
 import static com.hluhovskyi.camerabutton.TypedArrayHelper.getColor;
 import static com.hluhovskyi.camerabutton.TypedArrayHelper.getColors;
 import static com.hluhovskyi.camerabutton.TypedArrayHelper.getDimension;
@@ -107,6 +129,30 @@ public class CameraButton extends View {
         void onClick();
     }
 
+    /**
+     * Extension of {@link OnPhotoEventListener} which is notified about likely photo
+     * as soon as user touches the button, so camera can lock focus and exposure
+     * and start pre-capture sequence while the button is still being held.
+     *
+     * @see #setOnPhotoEventListener(OnPhotoEventListener)
+     */
+    public interface OnPhotoPrecaptureListener extends OnPhotoEventListener {
+
+        /**
+         * Invoked when user touches the button and the touch can result into
+         * {@link #onClick()}. Every invocation is followed by either {@link #onClick()}
+         * or {@link #onPrecaptureAborted()}.
+         */
+        void onPrecapture();
+
+        /**
+         * Invoked when touch reported by {@link #onPrecapture()} doesn't result into photo:
+         * - Button becomes {@link State#EXPANDED} and gesture turns into video
+         * - Gesture is cancelled, e.g. by a parent which intercepts touch events
+         */
+        void onPrecaptureAborted();
+    }
+
     /**
      * Interface used to handle user actions which corresponds to take video
      */
@@ -133,6 +179,109 @@ public class CameraButton extends View {
         void onCancel();
     }
 
+    /**
+     * Extension of {@link OnPhotoEventListener} which receives timestamps of the event,
+     * e.g. to pick a frame from zero-shutter-lag ring buffer which matches the press.
+     * For such listener only {@link #onClick(long, long, long)} is invoked.
+     *
+     * @see #setOnPhotoEventListener(OnPhotoEventListener)
+     */
+    public interface OnTimedPhotoEventListener extends OnPhotoEventListener {
+
+        /**
+         * Timestamped variant of {@link #onClick()}
+         *
+         * @param downTime          {@link MotionEvent#getDownTime()} of the gesture
+         * @param eventTime         {@link MotionEvent#getEventTime()} of the event which caused the callback
+         *                          or {@link #NO_EVENT_TIME} if it isn't caused by touch, key
+         *                          or trigger methods like {@link CameraButton#press()}
+         * @param dispatchTimeNanos time of dispatching in {@link android.os.SystemClock#elapsedRealtimeNanos()} timebase
+         */
+        void onClick(long downTime, long eventTime, long dispatchTimeNanos);
+    }
+
+    /**
+     * Extension of {@link OnVideoEventListener} which receives timestamps of the events.
+     * For such listener only timestamped variants of the callbacks are invoked.
+     * Parameters are the same as in {@link OnTimedPhotoEventListener#onClick(long, long, long)}.
+     *
+     * @see #setOnVideoEventListener(OnVideoEventListener)
+     */
+    public interface OnTimedVideoEventListener extends OnVideoEventListener {
+
+        /**
+         * Timestamped variant of {@link #onStart()}
+         */
+        void onStart(long downTime, long eventTime, long dispatchTimeNanos);
+
+        /**
+         * Timestamped variant of {@link #onFinish()}
+         */
+        void onFinish(long downTime, long eventTime, long dispatchTimeNanos);
+
+        /**
+         * Timestamped variant of {@link #onCancel()}
+         */
+        void onCancel(long downTime, long eventTime, long dispatchTimeNanos);
+    }
+
+    /**
+     * Extension of {@link OnVideoEventListener} which is notified about likely video
+     * before the button is expanded, so encoder can be prepared speculatively
+     * and recording starts right when {@link #onStart()} is invoked.
+     *
+     * @see #setOnVideoEventListener(OnVideoEventListener)
+     * @see #setVideoWarmUpDelay(long)
+     */
+    public interface OnVideoWarmUpListener extends OnVideoEventListener {
+
+        /**
+         * Invoked when button starts expanding or is held longer than {@link #getVideoWarmUpDelay()}.
+         * Every invocation is followed by either {@link #onStart()} or {@link #onWarmUpAborted()}.
+         */
+        void onWarmUp();
+
+        /**
+         * Invoked when button is released or gesture is cancelled
+         * after {@link #onWarmUp()} but before it is {@link State#EXPANDED}
+         */
+        void onWarmUpAborted();
+    }
+
+    /**
+     * Interface used to handle zoom gesture while video is being recorded
+     *
+     * @see #setOnZoomChangeListener(OnZoomChangeListener)
+     */
+    public interface OnZoomChangeListener {
+
+        /**
+         * Invoked at most once per frame when user drags held button vertically
+         * where zoom = 0f is the lowest point of the drag and zoom = 1f is
+         * {@link #getZoomDragDistance()} above it
+         *
+         * @param zoom new zoom
+         */
+        void onZoomChanged(@FloatRange(from = 0, to = 1) float zoom);
+    }
+
+    /**
+     * Interface used to track responsiveness of the button
+     *
+     * @see #setOnLatencyMeasuredListener(OnLatencyMeasuredListener)
+     */
+    public interface OnLatencyMeasuredListener {
+
+        /**
+         * Invoked when the first frame is drawn after state caused by touch event is dispatched
+         *
+         * @param state                state caused by touch event
+         * @param touchToDispatchNanos time from {@link MotionEvent#getEventTime()} to dispatching of the state
+         * @param touchToFrameNanos    time from {@link MotionEvent#getEventTime()} to drawing of the first frame
+         */
+        void onLatencyMeasured(@NonNull State state, long touchToDispatchNanos, long touchToFrameNanos);
+    }
+
     /**
      * Interface user to handle video recording progress changes
      */
@@ -147,6 +296,22 @@ public class CameraButton extends View {
         void onProgressChanged(@FloatRange(from = 0, to = 1) float progress);
     }
 
+    /**
+     * Draws progress arc of expanded button outside of {@link #onDraw(Canvas)}
+     *
+     * @see CameraButtonTextureView
+     */
+    interface ExternalProgressRenderer {
+
+        /**
+         * @param clock          clock which measures progress of the button
+         * @param startTimeNanos time at which recording is started according to the clock
+         */
+        void onProgressStarted(CameraButton button, Clock clock, long startTimeNanos);
+
+        void onProgressStopped(CameraButton button);
+    }
+
     /**
      * Describes which type of actions should be handled by button
      */
@@ -157,17 +322,17 @@ public class CameraButton extends View {
         /**
          * Describes mode which handles both photo and video type of actions
          */
-        int ALL = 0;
+        int ALL = CameraButtonStateMachine.MODE_ALL;
 
         /**
          * Describes mode which handles only photo actions
          */
-        int PHOTO = 1;
+        int PHOTO = CameraButtonStateMachine.MODE_PHOTO;
 
         /**
          * Describes mode which handles only video actions
          */
-        int VIDEO = 2;
+        int VIDEO = CameraButtonStateMachine.MODE_VIDEO;
     }
 
     /**
@@ -176,25 +341,65 @@ public class CameraButton extends View {
     @Retention(RetentionPolicy.SOURCE)
     @IntDef({Action.RELEASE, Action.CLICK})
     public @interface Action {
-        int RELEASE = 0;
-        int CLICK = 1;
+        int RELEASE = CameraButtonStateMachine.ACTION_RELEASE;
+        int CLICK = CameraButtonStateMachine.ACTION_CLICK;
+    }
+
+    /**
+     * Describes how often {@link OnProgressChangeListener} is notified
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({ProgressDispatchMode.FRAME, ProgressDispatchMode.INTERVAL,
+            ProgressDispatchMode.STEP, ProgressDispatchMode.SECOND})
+    public @interface ProgressDispatchMode {
+
+        /**
+         * Progress is dispatched on every frame
+         */
+        int FRAME = 0;
+
+        /**
+         * Progress is dispatched once per interval of recording time,
+         * see {@link #setProgressDispatchInterval(long)}
+         */
+        int INTERVAL = 1;
+
+        /**
+         * Progress is dispatched once per step of progress value,
+         * see {@link #setProgressDispatchStep(float)}
+         */
+        int STEP = 2;
+
+        /**
+         * Progress is dispatched only when whole second of recording time is changed
+         */
+        int SECOND = 3;
     }
 
     public static final float DEFAULT_GRADIENT_ROTATION_MULTIPLIER = 1.75f;
     public static final float NO_ICON = -1;
+    public static final long NO_WARM_UP_DELAY = -1;
+    public static final long NO_EVENT_TIME = -1;
+    public static final long NO_LATENCY = -1;
 
     static final String TAG = CameraButton.class.getSimpleName();
 
     private static final int DEFAULT_MODE = Mode.ALL;
     private static final int DEFAULT_COLLAPSE_ACTION = Action.RELEASE;
+    private static final boolean DEFAULT_VOLUME_KEYS_ENABLED = false;
 
-    private static final float START_ANGLE = -90f;
     private static final float SWEEP_ANGLE = 360f;
-    private static final float TRANSLATION_SCALE_THRESHOLD = 0.4f;
 
-    private final Paint mMainCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint mStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint mProgressArcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    //Indexed by state of CameraButtonStateMachine
+    private static final State[] STATES = State.values();
+
+    //Rendering
+    private ButtonRenderer mRenderer = new DefaultButtonRenderer();
+    final ButtonFrame mFrame = new ButtonFrame();
+    final ButtonGeometry mGeometry = new ButtonGeometry();
+    //Region damaged by the last software invalidation
+    final Rect mDirtyRegion = new Rect();
+    private boolean mIsHovered = false;
 
     //Sizes
     private int mDefaultWidth;
@@ -220,40 +425,100 @@ public class CameraButton extends View {
     private long mIconScrollDuration;
 
     //Icons
-    private Shader[] mIconShaders;
-    private Matrix[] mIconMatrices;
-    private Paint[] mIconPaints;
+    private ButtonIcons mIcons;
+    private boolean mIconAtlasEnabled = false;
     float mIconPosition = NO_ICON;
 
     //Config
-    private int mCurrentMode;
-    private int mCollapseAction;
     private float mGradientRotationMultiplier;
+    private boolean mVolumeKeysEnabled;
 
     //Logic
-    private State mCurrentState = DEFAULT;
-    boolean mIsCanceling = false;
+    CameraButtonStateMachine mStateMachine;
     float mExpandingFactor = 0f;
     float mProgressFactor = 0f;
-    private RectF mProgressArcArea = null;
 
-    private boolean mInvalidateGradient = true;
-    private boolean mInvalidateConsistency = true;
-    boolean mShouldCollapseOnNextClick = false;
     private boolean mShouldCheckConsistency = true;
+    private boolean mIdleLayerCacheEnabled = false;
+    IdleLayer mIdleLayer = null;
+    private RenderNodeLayers mRenderNodeLayers = null;
+
+    //Animation
+    private final ButtonAnimator.Listener mAnimationListener = new ButtonAnimator.Listener() {
+        @Override
+        public void onAnimationFrame(int changedTracks) {
+            applyAnimationFrame(changedTracks);
+        }
 
-    //Cancellable
-    ValueAnimator mExpandAnimator = null;
-    ValueAnimator mCollapseAnimator = null;
-    ValueAnimator mProgressAnimator = null;
-    ValueAnimator mIconScrollAnimator = null;
-    Runnable mExpandMessage = null;
+        @Override
+        public void onAnimationEnd(int track) {
+            handleAnimationEnd(track);
+        }
+    };
+    final ButtonAnimator mAnimator = new ButtonAnimator(mAnimationListener);
+    boolean mIsCollapsing = false;
+    Clock mClock = Clock.SYSTEM;
+    private Interpolator mExpandInterpolator = Interpolators.getAccelerateDecelerateInterpolator();
+    private Interpolator mCollapseInterpolator = Interpolators.getAccelerateDecelerateInterpolator();
+    private Interpolator mIconScrollInterpolator = Interpolators.getDecelerateInterpolator();
+
+    //Ends recording even if frames aren't delivered, e.g. main thread is stalled
+    final Runnable mRecordingDeadline = new Runnable() {
+        @Override
+        public void run() {
+            handleRecordingDeadline();
+        }
+    };
+
+    //Reused on every gesture, so press doesn't allocate
+    final Runnable mExpandMessage = new Runnable() {
+        @Override
+        public void run() {
+            mProgressFactor = 0f;
+            startExpanding();
+        }
+    };
+
+    //Coalesces all move events of the frame into single zoom change
+    final Runnable mZoomDispatch = new Runnable() {
+        @Override
+        public void run() {
+            mIsZoomDispatchPending = false;
+            dispatchZoomChangeIfNeeded();
+        }
+    };
+
+    final Runnable mWarmUpMessage = new Runnable() {
+        @Override
+        public void run() {
+            dispatchWarmUpIfNeeded();
+        }
+    };
 
     //Listeners
-    private OnStateChangeListener mStateListener;
-    private OnPhotoEventListener mPhotoListener;
-    private OnVideoEventListener mVideoListener;
-    private OnProgressChangeListener mProgressListener;
+    private final ListenerRegistry<OnStateChangeListener> mStateListeners = new ListenerRegistry<>();
+    private final ListenerRegistry<OnPhotoEventListener> mPhotoListeners = new ListenerRegistry<>();
+    //Timestamps of the gesture which is being handled
+    long mDownTime = NO_EVENT_TIME;
+    long mEventTime = NO_EVENT_TIME;
+    boolean mIsPrecapturePending = false;
+    private final ListenerRegistry<OnVideoEventListener> mVideoListeners = new ListenerRegistry<>();
+    private long mVideoWarmUpDelay = NO_WARM_UP_DELAY;
+    boolean mIsWarmUpPending = false;
+    private final ListenerRegistry<OnProgressChangeListener> mProgressListeners = new ListenerRegistry<>();
+    private final ProgressThrottle mProgressThrottle = new ProgressThrottle();
+    final LatencyProbe mLatencyProbe = new LatencyProbe();
+    private final ListenerRegistry<OnZoomChangeListener> mZoomListeners = new ListenerRegistry<>();
+
+    //Zoom
+    private final DragZoom mDragZoom = new DragZoom();
+    private boolean mIsZoomDragging = false;
+    private boolean mIsZoomDispatchPending = false;
+    private float mDispatchedZoom = 0f;
+
+    //External rendering
+    private ExternalProgressRenderer mExternalProgressRenderer;
+    boolean mIsProgressRenderedExternally = false;
 
     public CameraButton(Context context) {
         this(context, null);
@@ -362,6 +627,11 @@ public class CameraButton extends View {
                         R.styleable.CameraButton_cb_icon_size,
                         R.dimen.cb_icon_size_default));
 
+        mDragZoom.setDistance(
+                getDimension(context, array,
+                        R.styleable.CameraButton_cb_zoom_drag_distance,
+                        R.dimen.cb_zoom_drag_distance_default));
+
         mIconScrollDuration = Constraints.checkDuration(
                 getInteger(context, array,
                         R.styleable.CameraButton_cb_icon_scroll_duration,
@@ -371,102 +641,278 @@ public class CameraButton extends View {
                 R.styleable.CameraButton_cb_gradient_rotation_multiplier,
                 DEFAULT_GRADIENT_ROTATION_MULTIPLIER);
 
+        mVolumeKeysEnabled = array.getBoolean(
+                R.styleable.CameraButton_cb_volume_keys_enabled,
+                DEFAULT_VOLUME_KEYS_ENABLED);
+
         setIcons(getDrawableResources(
                 context,
                 array,
                 R.styleable.CameraButton_cb_icons));
 
-        mCurrentMode = array.getInteger(
-                R.styleable.CameraButton_cb_mode,
-                DEFAULT_MODE);
-
-        mCollapseAction = array.getInteger(
-                R.styleable.CameraButton_cb_collapse_action,
-                DEFAULT_COLLAPSE_ACTION);
+        mStateMachine = new CameraButtonStateMachine(
+                array.getInteger(
+                        R.styleable.CameraButton_cb_mode,
+                        DEFAULT_MODE),
+                array.getInteger(
+                        R.styleable.CameraButton_cb_collapse_action,
+                        DEFAULT_COLLAPSE_ACTION));
 
         array.recycle();
+        updateGeometry();
 
-        mMainCirclePaint.setColor(mMainCircleColor);
-        mStrokePaint.setColor(mStrokeColor);
-
-        mProgressArcPaint.setStyle(Paint.Style.STROKE);
-        mProgressArcPaint.setStrokeWidth(mProgressArcWidth);
-        mProgressArcPaint.setStrokeCap(Paint.Cap.ROUND);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            mRenderNodeLayers = new RenderNodeLayers();
+        }
     }
 
     @Override
     public boolean performClick() {
         boolean result = super.performClick();
-        if (mCollapseAction == CLICK &&
-                (mCurrentState == START_EXPANDING || mCurrentState == EXPANDED)) {
-
-            mCollapseAnimator = createCollapsingAnimator();
-            mCollapseAnimator.start();
-        }
+        runCommand(mStateMachine.onGesture(GESTURE_CLICK));
         return result;
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        //Listeners invoked during handling of the event receive its time
+        mEventTime = event.getEventTime();
+        boolean isHandled = handleTouchEvent(event);
+        mEventTime = NO_EVENT_TIME;
+        return isHandled;
+    }
+
+    private boolean handleTouchEvent(MotionEvent event) {
         final int action = event.getActionMasked();
         switch (action) {
             case MotionEvent.ACTION_DOWN: {
                 if (isEnabled() && isTouched(event)) {
-                    makePaintColorsHovered(true);
-
-                    if (mShouldCollapseOnNextClick &&
-                            (mCurrentState == START_EXPANDING || mCurrentState == EXPANDED)) {
-
-                        return true;
+                    if (handlePress(event.getDownTime())) {
+                        mIsZoomDragging = true;
+                        mDragZoom.start(event.getY());
+                        mDispatchedZoom = 0f;
                     }
-
-                    postExpandingMessageIfNeeded();
-                    invalidate();
-                    dispatchStateChange(PRESSED);
                     return true;
                 }
             }
 
             case MotionEvent.ACTION_MOVE: {
-                if (mShouldCollapseOnNextClick) {
+                if (mStateMachine.shouldCollapseOnNextClick()) {
                     makePaintColorsHovered(isTouchedExpanded(event));
+                } else if (action == MotionEvent.ACTION_MOVE && mIsZoomDragging) {
+                    mDragZoom.add(event);
+                    scheduleZoomDispatchIfNeeded();
                 }
                 return true;
             }
 
             case MotionEvent.ACTION_UP: {
-                if (mCurrentState == START_EXPANDING || mCurrentState == EXPANDED) {
-                    //Handling first release from button
-                    if (mCollapseAction == CLICK && !mShouldCollapseOnNextClick) {
-                        mShouldCollapseOnNextClick = true;
-                        makePaintColorsHovered(false);
-                        return true;
-                    }
+                mIsZoomDragging = false;
+                return handleRelease(isTouchedExpanded(event));
+            }
 
-                    //Released outside of button area
-                    if (mCollapseAction == CLICK && !isTouchedExpanded(event)) {
-                        return true;
-                    }
+            case MotionEvent.ACTION_CANCEL: {
+                mIsZoomDragging = false;
+                return handleGestureCancel();
+            }
+        }
+        return false;
+    }
 
-                    //Start collapsing
-                    mCollapseAnimator = createCollapsingAnimator();
-                    mCollapseAnimator.start();
+    /**
+     * Handles the beginning of the gesture regardless of its source: touch, key or code.
+     *
+     * @return true if the gesture starts new interaction,
+     * false if it only can collapse already expanded button on release
+     */
+    boolean handlePress(long downTime) {
+        makePaintColorsHovered(true);
 
-                    makePaintColorsHovered(false);
-                    invalidate();
-                    return true;
-                } else if (mCurrentState == PRESSED) {
-                    removeCallbacks(mExpandMessage);
-                    dispatchStateChange(DEFAULT);
-                    performClick();
+        int command = mStateMachine.onGesture(GESTURE_PRESS);
+        if (command == COMMAND_PRESS) {
+            mDownTime = downTime;
+        }
+        return runCommand(command);
+    }
 
-                    makePaintColorsHovered(false);
-                    invalidate();
-                    return true;
-                }
+    /**
+     * Handles the end of the gesture regardless of its source: touch, key or code.
+     *
+     * @param isInside true if gesture ends inside of expanded button area
+     * @return true if release is handled
+     */
+    boolean handleRelease(boolean isInside) {
+        return runCommand(mStateMachine.onGesture(
+                isInside ? GESTURE_RELEASE_INSIDE : GESTURE_RELEASE_OUTSIDE));
+    }
+
+    /**
+     * Handles gesture which is interrupted by the system, e.g. by a parent which intercepts touches
+     *
+     * @return true if cancel is handled
+     */
+    boolean handleGestureCancel() {
+        return runCommand(mStateMachine.onGesture(GESTURE_CANCEL));
+    }
+
+    /**
+     * Executes command of {@link #mStateMachine}
+     *
+     * @return true if command is handled, for {@link CameraButtonStateMachine#GESTURE_PRESS}
+     * true only if the press starts new interaction
+     */
+    private boolean runCommand(int command) {
+        switch (command) {
+            case COMMAND_PRESS:
+                postExpandingMessageIfNeeded();
+                postWarmUpMessageIfNeeded();
+                invalidate();
+                dispatchPrecapture();
+                dispatchStateChange(PRESSED);
+                return true;
+
+            case COMMAND_RELEASE_HOLD:
+                //Button stays expanded until the next click
+                makePaintColorsHovered(false);
+                return true;
+
+            case COMMAND_IGNORE:
+                return true;
+
+            case COMMAND_COLLAPSE:
+                startCollapsing();
+                makePaintColorsHovered(false);
+                invalidate();
+                return true;
+
+            case COMMAND_CLICK:
+                removeCallbacks(mExpandMessage);
+                removeCallbacks(mWarmUpMessage);
+                dispatchStateChange(DEFAULT);
+                performClick();
+                makePaintColorsHovered(false);
+                invalidate();
+                return true;
+
+            case COMMAND_ABORT_PRESS:
+                removeCallbacks(mExpandMessage);
+                removeCallbacks(mWarmUpMessage);
+                dispatchPrecaptureAbortedIfNeeded();
+                //Interrupted press isn't a click
+                mStateMachine.startCanceling();
+                dispatchStateChange(DEFAULT);
+                makePaintColorsHovered(false);
+                invalidate();
+                return true;
+
+            case COMMAND_CANCEL:
+                //Recording can't be finished by user anymore
+                dispatchPrecaptureAbortedIfNeeded();
+                cancel(true);
+                return true;
+
+            case COMMAND_EXPAND:
+                mExpandMessage.run();
+                return true;
+
+            default:
+                //COMMAND_HOVER only highlights expanded button which is going to be collapsed
+                return false;
+        }
+    }
+
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        if (isShutterKey(keyCode) && isEnabled()) {
+            //Held key repeats down events, only the first one starts the gesture
+            if (event.getRepeatCount() == 0) {
+                mEventTime = event.getEventTime();
+                handlePress(event.getDownTime());
+                mEventTime = NO_EVENT_TIME;
             }
+            return true;
         }
-        return false;
+        return super.onKeyDown(keyCode, event);
+    }
+
+    @Override
+    public boolean onKeyUp(int keyCode, KeyEvent event) {
+        if (isShutterKey(keyCode) && isEnabled()) {
+            mEventTime = event.getEventTime();
+            if (event.isCanceled()) {
+                handleGestureCancel();
+            } else {
+                handleRelease(true);
+            }
+            mEventTime = NO_EVENT_TIME;
+            return true;
+        }
+        return super.onKeyUp(keyCode, event);
+    }
+
+    /**
+     * Keys which act like touch of the button when it is focused.
+     * Volume keys are included only if {@link #isVolumeKeysEnabled()}.
+     */
+    private boolean isShutterKey(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_CAMERA:
+            case KeyEvent.KEYCODE_DPAD_CENTER:
+            case KeyEvent.KEYCODE_ENTER:
+                return true;
+            case KeyEvent.KEYCODE_VOLUME_UP:
+            case KeyEvent.KEYCODE_VOLUME_DOWN:
+                return mVolumeKeysEnabled;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Presses the button the same way as touch down does, e.g. for remote shutter.
+     * Has to be followed by {@link #release()}.
+     *
+     * @return true if press starts new interaction, false if button is disabled
+     * or press only highlights expanded button which is collapsed on release
+     */
+    public boolean press() {
+        if (!isEnabled()) {
+            return false;
+        }
+        long time = SystemClock.uptimeMillis();
+        mEventTime = time;
+        boolean isAccepted = handlePress(time);
+        mEventTime = NO_EVENT_TIME;
+        return isAccepted;
+    }
+
+    /**
+     * Releases the button pressed by {@link #press()} the same way as touch up does
+     *
+     * @return true if release is handled
+     */
+    public boolean release() {
+        mEventTime = SystemClock.uptimeMillis();
+        boolean isHandled = handleRelease(true);
+        mEventTime = NO_EVENT_TIME;
+        return isHandled;
+    }
+
+    /**
+     * Starts video recording if button is idle or finishes it if recording is in progress.
+     * Doesn't require the button to be held, so recording continues until it is toggled again,
+     * tapped or {@link #getVideoDuration()} passes.
+     * Does nothing if {@link #getMode()} is {@link Mode#PHOTO}.
+     */
+    public void toggleRecording() {
+        long time = SystemClock.uptimeMillis();
+        mEventTime = time;
+        int command = mStateMachine.onGesture(GESTURE_TOGGLE);
+        if (command == COMMAND_EXPAND) {
+            mDownTime = time;
+        }
+        runCommand(command);
+        mEventTime = NO_EVENT_TIME;
     }
 
     /**
@@ -495,14 +941,7 @@ public class CameraButton extends View {
      */
     private void postExpandingMessageIfNeeded() {
         if (isExpandable()) {
-            mExpandMessage = new Runnable() {
-                @Override
-                public void run() {
-                    mProgressFactor = 0f;
-                    mExpandAnimator = createExpandingAnimator();
-                    mExpandAnimator.start();
-                }
-            };
+            removeCallbacks(mExpandMessage);
 
             //In case when mode doesn't allow hold - post message immediately
             //so button will start expanding right after a tap
@@ -514,144 +953,291 @@ public class CameraButton extends View {
         }
     }
 
-    ValueAnimator createExpandingAnimator() {
-        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                mExpandingFactor = (float) animation.getAnimatedValue();
-                invalidate();
-            }
-        });
-        animator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                Log.v(TAG, "expandingAnimator, onAnimationStart");
-                dispatchStateChange(START_EXPANDING);
-
-                cancelProgressAnimatorIfNeeded();
-                cancelCollapsingAnimatorIfNeeded();
-            }
+    /**
+     * Posts warm-up message in case if it should be dispatched earlier than button starts expanding
+     */
+    private void postWarmUpMessageIfNeeded() {
+        removeCallbacks(mWarmUpMessage);
+        if (mVideoWarmUpDelay != NO_WARM_UP_DELAY && isExpandable()
+                && mVideoListeners.contains(OnVideoWarmUpListener.class)) {
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                Log.v(TAG, "expandingAnimator, onAnimationEnd");
-                mProgressAnimator = createProgressAnimator();
-                mProgressAnimator.start();
-                dispatchStateChange(EXPANDED);
-            }
+            postDelayed(mWarmUpMessage, mVideoWarmUpDelay);
+        }
+    }
 
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                Log.v(TAG, "expandingAnimator, onAnimationCancel");
-                animation.removeAllListeners();
-            }
-        });
-        animator.setDuration(mExpandDuration);
-        return animator;
+    /**
+     * Expanding continues from current {@link #mExpandingFactor}, so interrupted collapsing
+     * isn't restarted from idle state and takes proportionally shorter time
+     */
+    void startExpanding() {
+        logVerbose("startExpanding");
+        dispatchStateChange(START_EXPANDING);
+
+        cancelProgressIfNeeded();
+        cancelCollapsingIfNeeded();
+
+        float from = mExpandingFactor;
+        mAnimator.start(TRACK_EXPANDING, from, 1f,
+                (long) (mExpandDuration * (1f - from)), mExpandInterpolator);
     }
 
-    void cancelExpandingAnimatorIfNeeded() {
-        if (mExpandAnimator != null) {
-            mExpandAnimator.cancel();
-            mExpandAnimator = null;
+    void cancelExpandingIfNeeded() {
+        //Expanding and collapsing share the same track
+        if (!mIsCollapsing) {
+            mAnimator.cancel(TRACK_EXPANDING);
         }
     }
 
-    ValueAnimator createCollapsingAnimator() {
-        ValueAnimator animator = ValueAnimator.ofFloat(1f, 0f);
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                mExpandingFactor = (float) animation.getAnimatedValue();
-                invalidate();
-            }
-        });
-        animator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                Log.v(TAG, "collapsingAnimator, onAnimationStart");
-                mShouldCollapseOnNextClick = false;
+    /**
+     * Collapsing continues from current {@link #mExpandingFactor}, so release during expanding
+     * doesn't snap the button to expanded state and returns it to idle sooner
+     */
+    void startCollapsing() {
+        logVerbose("startCollapsing");
 
-                cancelExpandingAnimatorIfNeeded();
-                cancelProgressAnimatorIfNeeded();
+        cancelExpandingIfNeeded();
+        cancelProgressIfNeeded();
 
-                makePaintColorsHovered(false);
-                dispatchStateChange(START_COLLAPSING);
-            }
+        makePaintColorsHovered(false);
+        dispatchStateChange(START_COLLAPSING);
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                Log.v(TAG, "collapsingAnimator, onAnimationEnd");
-                mProgressFactor = 0f;
-                dispatchStateChange(DEFAULT);
-            }
+        float from = mExpandingFactor;
+        mIsCollapsing = true;
+        mAnimator.start(TRACK_EXPANDING, from, 0f,
+                (long) (mCollapseDuration * from), mCollapseInterpolator);
+    }
 
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                Log.v(TAG, "collapsingAnimator, onAnimationCancel");
-                animation.removeAllListeners();
-            }
-        });
-        animator.setDuration(mCollapseDuration);
-        return animator;
+    void cancelCollapsingIfNeeded() {
+        if (mIsCollapsing) {
+            mIsCollapsing = false;
+            mAnimator.cancel(TRACK_EXPANDING);
+        }
+    }
+
+    /**
+     * Progress follows {@link #mClock}, so recording lasts exactly {@link #getVideoDuration()}
+     * regardless of animator duration scale and dropped frames.
+     */
+    void startProgress() {
+        logVerbose("startProgress");
+        mProgressThrottle.reset();
+        mAnimator.startTimed(TRACK_PROGRESS, mClock, mVideoDuration);
+        updateProgressFrameInterval();
+        postDelayed(mRecordingDeadline, mVideoDuration);
     }
 
-    void cancelCollapsingAnimatorIfNeeded() {
-        if (mCollapseAnimator != null) {
-            mCollapseAnimator.cancel();
-            mCollapseAnimator = null;
+    /**
+     * Long recordings move the arc less than a pixel per frame,
+     * so progress asks for a frame only when at least one pixel changes.
+     */
+    void updateProgressFrameInterval() {
+        if (!mAnimator.isRunning(TRACK_PROGRESS)) {
+            return;
         }
+        float pathLength = mGeometry.getProgressPathLength(mGradientRotationMultiplier);
+        long intervalNanos = pathLength >= 1f
+                ? (long) (mVideoDuration * 1000000L / pathLength)
+                : 0;
+        mAnimator.setFrameInterval(TRACK_PROGRESS, intervalNanos);
     }
 
-    ValueAnimator createProgressAnimator() {
-        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
-        animator.setInterpolator(Interpolators.getLinearInterpolator());
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                mProgressFactor = (float) animation.getAnimatedValue();
-                dispatchProgressChange(mProgressFactor);
-                invalidate();
-            }
-        });
-        animator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                Log.v(TAG, "progressAnimator, onAnimationEnd");
-                mCollapseAnimator = createCollapsingAnimator();
-                mCollapseAnimator.start();
-            }
+    void cancelProgressIfNeeded() {
+        mAnimator.cancel(TRACK_PROGRESS);
+        removeCallbacks(mRecordingDeadline);
+        stopExternalProgressIfNeeded();
+    }
 
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                Log.v(TAG, "progressAnimator, onAnimationCancel");
-                animation.removeAllListeners();
-            }
-        });
-        animator.setDuration(mVideoDuration);
-        return animator;
+    void handleRecordingDeadline() {
+        if (!mAnimator.isRunning(TRACK_PROGRESS)) {
+            return;
+        }
+
+        //Message timing isn't based on the clock, so wait for the rest if it came too early
+        long remainingNanos = mAnimator.getRemainingNanos(TRACK_PROGRESS, mClock);
+        if (remainingNanos > 0) {
+            postDelayed(mRecordingDeadline, (remainingNanos + 999999L) / 1000000L);
+            return;
+        }
+
+        logVerbose("progress, deadline");
+        mProgressFactor = 1f;
+        dispatchProgressChange(mProgressFactor);
+        startCollapsing();
+    }
+
+    /**
+     * Applies values of all tracks changed during the frame
+     * and damages the smallest region which covers all of them.
+     */
+    void applyAnimationFrame(int changedTracks) {
+        float previousExpandingFactor = mExpandingFactor;
+
+        boolean isExpandingChanged = (changedTracks & flagOf(TRACK_EXPANDING)) != 0;
+        boolean isProgressChanged = (changedTracks & flagOf(TRACK_PROGRESS)) != 0;
+        boolean isIconsChanged = (changedTracks & flagOf(TRACK_ICONS)) != 0;
+
+        if (isExpandingChanged) {
+            mExpandingFactor = mAnimator.getValue(TRACK_EXPANDING);
+        }
+        if (isProgressChanged) {
+            mProgressFactor = mAnimator.getValue(TRACK_PROGRESS);
+            dispatchProgressChange(mProgressFactor);
+        }
+        if (isIconsChanged) {
+            mIconPosition = mAnimator.getValue(TRACK_ICONS);
+        }
+
+        //Stroke region covers progress arc and icons,
+        //progress region covers icons
+        if (isExpandingChanged) {
+            invalidateExpandingRegion(Math.max(previousExpandingFactor, mExpandingFactor));
+        } else if (isProgressChanged && !mIsProgressRenderedExternally) {
+            invalidateProgressRegion();
+        } else if (isIconsChanged) {
+            invalidateIconsRegion();
+        }
+    }
+
+    void handleAnimationEnd(int track) {
+        switch (track) {
+            case TRACK_EXPANDING:
+                if (mIsCollapsing) {
+                    logVerbose("collapsing, onAnimationEnd");
+                    mIsCollapsing = false;
+                    mProgressFactor = 0f;
+                    dispatchStateChange(DEFAULT);
+                } else {
+                    logVerbose("expanding, onAnimationEnd");
+                    startProgress();
+                    startExternalProgressIfNeeded();
+                    dispatchStateChange(EXPANDED);
+                }
+                break;
+
+            case TRACK_PROGRESS:
+                logVerbose("progress, onAnimationEnd");
+                removeCallbacks(mRecordingDeadline);
+                startCollapsing();
+                break;
+        }
+    }
+
+    void startExternalProgressIfNeeded() {
+        if (mExternalProgressRenderer != null) {
+            mIsProgressRenderedExternally = true;
+            mExternalProgressRenderer.onProgressStarted(this, mClock, mAnimator.getStartNanos(TRACK_PROGRESS));
+        }
+    }
+
+    void stopExternalProgressIfNeeded() {
+        if (mIsProgressRenderedExternally) {
+            mIsProgressRenderedExternally = false;
+            mExternalProgressRenderer.onProgressStopped(this);
+            invalidate();
+        }
+    }
+
+    /**
+     * Replaces clock which drives recording progress, used by tests
+     */
+    void setClock(@NonNull Clock clock) {
+        mClock = Constraints.checkNonNull(clock);
+    }
+
+    /**
+     * Sets renderer which takes over drawing of progress arc while button is expanded
+     *
+     * @param renderer new renderer or null to draw progress inside {@link #onDraw(Canvas)}
+     */
+    void setExternalProgressRenderer(@Nullable ExternalProgressRenderer renderer) {
+        stopExternalProgressIfNeeded();
+        mExternalProgressRenderer = renderer;
+    }
+
+    /**
+     * Damages only area covered by stroke circle for passed expanding factor.
+     * Since stroke is the biggest part of the button it also covers main circle and icons.
+     *
+     * @param factor the biggest expanding factor among previous and current frames
+     */
+    void invalidateExpandingRegion(float factor) {
+        float strokeRadius = mGeometry.getStrokeRadius(factor);
+        invalidateCenteredRegion(strokeRadius, strokeRadius);
+    }
+
+    /**
+     * Damages only bounding box of the progress arc including its stroke width.
+     */
+    void invalidateProgressRegion() {
+        if (mGeometry.mWidth == 0) {
+            invalidate();
+            return;
+        }
+        //Arc is inscribed into the stroke, so its outer edge matches stroke radius
+        invalidateCenteredRegion(mFrame.mStrokeRadius, mFrame.mStrokeRadius);
+    }
+
+    /**
+     * Damages only horizontal band in which icons are scrolled.
+     * Scrolled out icon is translated up to the edge of main circle,
+     * so band is wider than a single icon.
+     */
+    void invalidateIconsRegion() {
+        ButtonGeometry geometry = mGeometry;
+        invalidateCenteredRegion(
+                Math.max(geometry.mMainCircleRadius, geometry.mIconSize / 2f),
+                geometry.mIconSize / 2f);
     }
 
-    void cancelProgressAnimatorIfNeeded() {
-        if (mProgressAnimator != null) {
-            mProgressAnimator.cancel();
-            mProgressAnimator = null;
+    /**
+     * Hardware renderer ignores damaged area since API 21 and computes it on its own,
+     * so the region is passed only when the view is drawn by software.
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidateCenteredRegion(float halfWidth, float halfHeight) {
+        if (isHardwareAccelerated() && getLayerType() != LAYER_TYPE_SOFTWARE) {
+            invalidate();
+            return;
         }
+        computeCenteredRegion(halfWidth, halfHeight, mDirtyRegion);
+        invalidate(mDirtyRegion);
+    }
+
+    private void computeCenteredRegion(float halfWidth, float halfHeight, Rect outRegion) {
+        float centerX = mGeometry.mCenterX;
+        float centerY = mGeometry.mCenterY;
+
+        //Extra pixel is reserved for anti-aliased edges
+        outRegion.set(
+                (int) Math.floor(centerX - halfWidth) - 1,
+                (int) Math.floor(centerY - halfHeight) - 1,
+                (int) Math.ceil(centerX + halfWidth) + 1,
+                (int) Math.ceil(centerY + halfHeight) + 1);
     }
 
     /**
-     * Changes colors of main circle and stroke paints according to passed flag
+     * Changes colors of main circle and stroke according to passed flag
      *
      * @param hovered - indicates is user touches view or not
      */
     void makePaintColorsHovered(boolean hovered) {
-        if (hovered) {
-            mMainCirclePaint.setColor(mMainCircleColorPressed);
-            mStrokePaint.setColor(mStrokeColorPressed);
-        } else {
-            mMainCirclePaint.setColor(mMainCircleColor);
-            mStrokePaint.setColor(mStrokeColor);
+        mIsHovered = hovered;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAnimator.updateDurationScale(getContext());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mIdleLayer != null) {
+            mIdleLayer.release();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && mRenderNodeLayers != null) {
+            mRenderNodeLayers.discard();
         }
     }
 
@@ -677,392 +1263,646 @@ public class CameraButton extends View {
         setMeasuredDimension(width, height);
     }
 
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
-        int width = canvas.getWidth();
-        int height = canvas.getHeight();
+        mLatencyProbe.onFrame();
 
-        if (mShouldCheckConsistency && mInvalidateConsistency) {
-            mInvalidateConsistency = false;
-            validateConsistency(width, height);
+        //Geometry is validated only once after it's changed
+        if (mShouldCheckConsistency && !mGeometry.isValidated()) {
+            mGeometry.validate();
         }
 
-        int centerX = width / 2;
-        int centerY = height / 2;
-        int radius = Math.min(centerX, centerY);
+        updateFrame();
 
-        if (mProgressArcArea == null) {
-            mProgressArcArea = new RectF();
+        if (mIdleLayerCacheEnabled && mExpandingFactor == 0f) {
+            drawIdleLayer(canvas);
+            return;
         }
 
-        if (mInvalidateGradient) {
-            mProgressArcPaint.setShader(createGradient(width, height));
-            mInvalidateGradient = false;
+        if (mRenderNodeLayers != null && canvas.isHardwareAccelerated()) {
+            drawRenderNodeLayers(canvas);
+            return;
         }
 
-        float strokeCollapsedRadius = mMainCircleRadius + mStrokeWidth;
-        float currentStrokeRadius = strokeCollapsedRadius - (strokeCollapsedRadius - radius) * mExpandingFactor;
-        canvas.drawCircle(centerX, centerY, currentStrokeRadius, mStrokePaint);
+        mRenderer.drawStroke(canvas, mFrame);
+        drawProgressArcIfNeeded(canvas);
+        mRenderer.drawMainCircle(canvas, mFrame);
+        drawIconsIfNeeded(canvas);
+    }
 
-        float currentArcWidth = mProgressArcWidth * Interpolators.interpolateArcWidth(mExpandingFactor);
-        if (currentArcWidth > 0f) {
-            mProgressArcPaint.setStrokeWidth(currentArcWidth);
+    /**
+     * Interpolates all values of the frame according to current factors
+     */
+    private void updateFrame() {
+        ButtonFrame frame = mFrame;
+        ButtonGeometry geometry = mGeometry;
 
-            //Rotate whole canvas and reduce rotation from start angle of progress arc.
-            //It allows to rotate gradient shader without rotating arc.
-            canvas.save();
-            float gradientRotation = SWEEP_ANGLE * mProgressFactor * mGradientRotationMultiplier;
-            canvas.rotate(gradientRotation, centerX, centerY);
-            invalidateProgressArcArea(centerX, centerY, currentStrokeRadius, currentArcWidth);
-            canvas.drawArc(mProgressArcArea, START_ANGLE - gradientRotation, SWEEP_ANGLE * mProgressFactor, false, mProgressArcPaint);
-            canvas.restore();
-        }
+        frame.mWidth = geometry.mWidth;
+        frame.mHeight = geometry.mHeight;
 
-        float mainCircleRadius = mMainCircleRadius - (mMainCircleRadius - mMainCircleRadiusExpanded) * mExpandingFactor;
-        canvas.drawCircle(centerX, centerY, mainCircleRadius, mMainCirclePaint);
+        frame.mExpandingFactor = mExpandingFactor;
+        frame.mProgressFactor = mProgressFactor;
+        frame.mGradientRotation = SWEEP_ANGLE * mProgressFactor * mGradientRotationMultiplier;
+        frame.mIconPosition = mIconPosition;
 
-        drawIconsIfNeeded(canvas);
+        frame.mStrokeRadius = geometry.getStrokeRadius(mExpandingFactor);
+        frame.mProgressArcWidth = geometry.getProgressArcWidth(mExpandingFactor);
+        frame.mMainCircleRadius = geometry.getMainCircleRadius(mExpandingFactor);
+        frame.mMainCircleRadiusCollapsed = geometry.mMainCircleRadius;
+        frame.mIconSize = geometry.mIconSize;
+
+        frame.mStrokeColor = mIsHovered ? mStrokeColorPressed : mStrokeColor;
+        frame.mMainCircleColor = mIsHovered ? mMainCircleColorPressed : mMainCircleColor;
+        frame.mProgressArcColors = mProgressArcColors;
+    }
+
+    /**
+     * Recalculates per-size constants. Has to be called whenever size of the view
+     * or any of its dimensions is changed.
+     */
+    private void updateGeometry() {
+        mGeometry.update(
+                getWidth(),
+                getHeight(),
+                mMainCircleRadius,
+                mMainCircleRadiusExpanded,
+                mStrokeWidth,
+                mProgressArcWidth,
+                mIconSize);
+        updateProgressFrameInterval();
+    }
+
+    private void drawProgressArcIfNeeded(Canvas canvas) {
+        if (mFrame.mProgressArcWidth > 0f && !mIsProgressRenderedExternally) {
+            mRenderer.drawProgressArc(canvas, mFrame);
+        }
     }
 
     private void drawIconsIfNeeded(Canvas canvas) {
-        if (mIconPosition == NO_ICON) {
-            return;
+        if (mIconPosition != NO_ICON && mIcons != null) {
+            mRenderer.drawIcons(canvas, mFrame);
+        }
+    }
+
+    /**
+     * Draws every layer of the button from its own {@link android.graphics.RenderNode}.
+     * Only layers which inputs are changed since previous frame are recorded again,
+     * so e.g. progress ticks re-record the arc only.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.Q)
+    private void drawRenderNodeLayers(Canvas canvas) {
+        ButtonFrame frame = mFrame;
+        RenderNodeLayers layers = mRenderNodeLayers;
+        layers.setSize(frame.mWidth, frame.mHeight);
+
+        Canvas layer = layers.beginStroke(frame.mStrokeRadius, frame.mStrokeColor);
+        if (layer != null) {
+            mRenderer.drawStroke(layer, frame);
+            layers.endStroke();
+        }
+
+        layer = layers.beginArc(frame.mStrokeRadius, frame.mProgressArcWidth, frame.mProgressFactor,
+                frame.mGradientRotation, frame.mProgressArcColors);
+        if (layer != null) {
+            drawProgressArcIfNeeded(layer);
+            layers.endArc();
+        }
+
+        layer = layers.beginMainCircle(frame.mMainCircleRadius, frame.mMainCircleColor);
+        if (layer != null) {
+            mRenderer.drawMainCircle(layer, frame);
+            layers.endMainCircle();
+        }
+
+        layer = layers.beginIcons(frame.mIconPosition, frame.mMainCircleRadiusCollapsed,
+                frame.mIconSize, mIcons);
+        if (layer != null) {
+            drawIconsIfNeeded(layer);
+            layers.endIcons();
+        }
+
+        layers.draw(canvas);
+    }
+
+    /**
+     * Draws cached composition of {@link State#DEFAULT} state.
+     * The layer is recorded again only if some of its inputs are changed.
+     */
+    private void drawIdleLayer(Canvas canvas) {
+        if (!mIdleLayer.isValid(mFrame, mIcons)) {
+            Canvas layer = mIdleLayer.beginRecording(mFrame, mIcons);
+            mRenderer.drawStroke(layer, mFrame);
+            mRenderer.drawMainCircle(layer, mFrame);
+            drawIconsIfNeeded(layer);
+        }
+
+        mIdleLayer.draw(canvas);
+    }
+
+    /**
+     * Drops recorded layers, so they are recorded again with current renderer and icons
+     */
+    private void invalidateLayers() {
+        if (mIdleLayer != null) {
+            mIdleLayer.invalidate();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && mRenderNodeLayers != null) {
+            mRenderNodeLayers.discard();
+        }
+    }
+
+    private void disposeIcons() {
+        mIconPosition = NO_ICON;
+        mIcons = null;
+        mRenderer.onIconsChanged(null);
+    }
+
+    private boolean isPressable() {
+        return mStateMachine.isPressable();
+    }
+
+    private boolean isExpandable() {
+        return mStateMachine.isExpandable();
+    }
+
+    /**
+     * Scrolls icons with animation to concrete position.
+     * The position is float since it is valid to scroll to an intermediate position (e.g. 0.5f)
+     *
+     * @param position to which icons should be scrolled
+     * @throws IllegalStateException if icons are not set
+     * @throws IllegalStateException if position is greater than icons count
+     */
+    public void scrollIconsToPosition(@FloatRange(from = 0f) float position) {
+        checkCanScroll(position);
+
+        float from = mIconPosition == NO_ICON ? 0 : mIconPosition;
+        long duration = (long) (Math.abs(from - position) * mIconScrollDuration);
+
+        mAnimator.start(TRACK_ICONS, from, position, duration, mIconScrollInterpolator);
+    }
+
+    void cancelScrollIfNeeded() {
+        mAnimator.cancel(TRACK_ICONS);
+    }
+
+    /**
+     * Immediately scrolls icons without animation to concrete position
+     * The position is float since it is valid to set an intermediate position (e.g. 0.5f)
+     *
+     * @param position to which icons should be scrolled
+     * @throws IllegalStateException if icons are not set
+     * @throws IllegalStateException if position is greater than icons count
+     */
+    public void setIconsPosition(@FloatRange(from = 0f) float position) {
+        checkCanScroll(position);
+        cancelScrollIfNeeded();
+
+        mIconPosition = position;
+        invalidateIconsRegion();
+    }
+
+    private void checkCanScroll(float position) {
+        if (mIconPosition == NO_ICON && mIcons == null) {
+            throw new IllegalStateException(
+                    "`setIcons` must be called before `scrollIconsToPosition`/`setIconsPosition`");
+        }
+        if (position < 0) {
+            throw new IllegalStateException(
+                    "`position` (" + position + ") must be positive number");
+        }
+        if (position > mIcons.getCount()) {
+            throw new IllegalStateException(
+                    "`position` (" + position + ") can't be greater than icons count (" + mIcons.getCount() + ")");
         }
+    }
 
-        int leftIndex = (int) mIconPosition;
-        float leftProgress = mIconPosition - (int) mIconPosition;
-        float rightProgress = 1 - leftProgress;
+    /**
+     * Cancels video recording with animation
+     */
+    public void cancel() {
+        cancel(true);
+    }
 
-        drawIcon(canvas, leftIndex, leftProgress, true);
+    /**
+     * Cancels video recording.
+     * In case if animated = false then START_COLLAPSING state won't be dispatched to listeners
+     * <p>
+     * Always calls {@link OnVideoEventListener#onCancel()}
+     *
+     * @param animated indicates should canceling process be animated or not
+     */
+    public void cancel(boolean animated) {
+        cancelProgressIfNeeded();
+        cancelExpandingIfNeeded();
+        mStateMachine.startCanceling();
+        if (animated) {
+            startCollapsing();
+        } else {
+            dispatchStateChange(DEFAULT);
+            mExpandingFactor = 0f;
+            mProgressFactor = 0f;
+            invalidate();
+        }
+    }
 
-        if (leftIndex < mIconShaders.length - 1) {
-            drawIcon(canvas, leftIndex + 1, rightProgress, false);
+    /**
+     * Logs message only if verbose logging is enabled for {@link #TAG}
+     */
+    private static void logVerbose(String message) {
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            Log.v(TAG, message);
         }
     }
 
     /**
-     * Since algorithm has differences between values calculation of right/left icons
-     * we have to pass some flag for identify icon side.
+     * Handle state changing. Notifies all listeners except {@link #mProgressListeners}
+     * about corresponding events.
+     *
+     * @param state - new state of the button
      */
-    private void drawIcon(Canvas canvas, int index, float progress, boolean isLeftIcon) {
-        float centerX = canvas.getWidth() / 2f;
-        float centerY = canvas.getHeight() / 2f;
+    void dispatchStateChange(State state) {
+        //Message is built only when it's going to be printed
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            Log.v(TAG, "dispatchStateChange " + getState().name() + " -> " + state.name());
+        }
 
-        float iconWidth = calculateIconWidth(progress);
-        float translation = calculateTranslation(progress);
-        float scaleX = iconWidth / mIconSize;
+        if (mEventTime != NO_EVENT_TIME) {
+            mLatencyProbe.onDispatch(state, mEventTime);
+        }
 
-        float matrixDx = isLeftIcon
-                ? centerX - mIconSize / 2f - translation
-                : centerX + mIconSize / 2f + translation - iconWidth;
+        int events = mStateMachine.getTransitionEvents(state.ordinal());
 
-        Matrix matrix = mIconMatrices[index];
-        matrix.reset();
-        matrix.setScale(scaleX, 1);
-        matrix.postTranslate(matrixDx, centerY - mIconSize / 2f);
+        if ((events & (EVENT_STATE | EVENT_PRESSED_STATE)) != 0) {
+            for (Object listener : mStateListeners.getListeners()) {
+                ((OnStateChangeListener) listener).onStateChanged(state);
+            }
+        }
 
-        mIconShaders[index].setLocalMatrix(matrix);
+        if ((events & EVENT_WARM_UP) != 0) {
+            dispatchWarmUpIfNeeded();
+        } else if ((events & EVENT_WARM_UP_ABORT) != 0) {
+            removeCallbacks(mWarmUpMessage);
+            dispatchWarmUpAbortedIfNeeded();
+        }
 
-        Paint paint = mIconPaints[index];
-        paint.setAlpha((int) (255 * (1 - progress)));
+        if ((events & EVENT_VIDEO_START) != 0) {
+            mIsWarmUpPending = false;
+            dispatchVideoStart();
+        } else if ((events & EVENT_VIDEO_CANCEL) != 0) {
+            dispatchVideoCancel();
+        } else if ((events & EVENT_VIDEO_FINISH) != 0) {
+            dispatchVideoFinish();
+        }
 
-        float rectLeft = isLeftIcon
-                ? centerX - mIconSize / 2f - translation
-                : centerX + mIconSize / 2f + translation - iconWidth;
+        if ((events & EVENT_PHOTO_CLICK) != 0) {
+            mIsPrecapturePending = false;
+            dispatchPhotoClick();
+        }
 
-        float rectRight = isLeftIcon
-                ? centerX - mIconSize / 2f - translation + iconWidth
-                : centerX + mIconSize / 2f + translation;
+        if ((events & EVENT_PRECAPTURE_ABORT) != 0) {
+            dispatchPrecaptureAbortedIfNeeded();
+        }
 
-        canvas.drawRect(
-                rectLeft,
-                centerY - mIconSize / 2f,
-                rectRight,
-                centerY + mIconSize / 2f,
-                paint
-        );
+        mStateMachine.moveTo(state.ordinal());
     }
 
-    private float calculateTranslation(float progress) {
-        float interpolated = progress <= TRANSLATION_SCALE_THRESHOLD
-                ? progress / TRANSLATION_SCALE_THRESHOLD
-                : 1f;
+    private void dispatchPhotoClick() {
+        long dispatchTimeNanos = mClock.nanoTime();
+        for (Object listener : mPhotoListeners.getListeners()) {
+            if (listener instanceof OnTimedPhotoEventListener) {
+                ((OnTimedPhotoEventListener) listener).onClick(mDownTime, mEventTime, dispatchTimeNanos);
+            } else {
+                ((OnPhotoEventListener) listener).onClick();
+            }
+        }
+    }
 
-        return (mMainCircleRadius - mIconSize / 2f) * interpolated;
+    private void dispatchVideoStart() {
+        long dispatchTimeNanos = mClock.nanoTime();
+        for (Object listener : mVideoListeners.getListeners()) {
+            if (listener instanceof OnTimedVideoEventListener) {
+                ((OnTimedVideoEventListener) listener).onStart(mDownTime, mEventTime, dispatchTimeNanos);
+            } else {
+                ((OnVideoEventListener) listener).onStart();
+            }
+        }
     }
 
-    private float calculateIconWidth(float progress) {
-        float interpolated = progress < TRANSLATION_SCALE_THRESHOLD
-                ? 0
-                : (progress - TRANSLATION_SCALE_THRESHOLD) / (1 - TRANSLATION_SCALE_THRESHOLD);
+    private void dispatchVideoFinish() {
+        long dispatchTimeNanos = mClock.nanoTime();
+        for (Object listener : mVideoListeners.getListeners()) {
+            if (listener instanceof OnTimedVideoEventListener) {
+                ((OnTimedVideoEventListener) listener).onFinish(mDownTime, mEventTime, dispatchTimeNanos);
+            } else {
+                ((OnVideoEventListener) listener).onFinish();
+            }
+        }
+    }
 
-        return mIconSize - mIconSize * interpolated;
+    private void dispatchVideoCancel() {
+        long dispatchTimeNanos = mClock.nanoTime();
+        for (Object listener : mVideoListeners.getListeners()) {
+            if (listener instanceof OnTimedVideoEventListener) {
+                ((OnTimedVideoEventListener) listener).onCancel(mDownTime, mEventTime, dispatchTimeNanos);
+            } else {
+                ((OnVideoEventListener) listener).onCancel();
+            }
+        }
     }
 
-    private void validateConsistency(int width, int height) {
-        if (mMainCircleRadius > Math.min(width, height)) {
-            throw new ConsistencyValidationException(
-                    "MainCircleRadius can't be greater than width or height. " +
-                            "MainCircleRadius=" + mMainCircleRadius + "px, width=" + width + "px, height=" + height + "px");
+    private void scheduleZoomDispatchIfNeeded() {
+        if (mZoomListeners.isEmpty() || mIsZoomDispatchPending) {
+            return;
         }
-        if (mMainCircleRadius + mStrokeWidth > Math.min(width, height)) {
-            throw new ConsistencyValidationException(
-                    "Sum of MainCircleRadius and StrokeWidth can't be greater than width or height. " +
-                            "MainCircleRadius=" + mMainCircleRadius + "px, StrokeWidth=" + mStrokeWidth + "px, width=" + width + "px, height=" + height + "px");
+        mIsZoomDispatchPending = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postOnAnimation(mZoomDispatch);
+        } else {
+            post(mZoomDispatch);
         }
-        if (mMainCircleRadiusExpanded > Math.min(width, height)) {
-            throw new ConsistencyValidationException(
-                    "MainCircleRadiusExpanded can't be greater than width or height. " +
-                            "MainCircleRadiusExpanded=" + mMainCircleRadiusExpanded + "px, width=" + width + "px, height=" + height + "px");
+    }
+
+    /**
+     * Notifies {@link #mZoomListeners} about zoom of the drag only while video is being recorded
+     * by the same gesture
+     */
+    void dispatchZoomChangeIfNeeded() {
+        if (mZoomListeners.isEmpty() || !mIsZoomDragging
+                || !mStateMachine.isExpandingOrExpanded()) {
+            return;
         }
-        if (mMainCircleRadiusExpanded + mProgressArcWidth > Math.min(width, height)) {
-            throw new ConsistencyValidationException(
-                    "Sum of MainCircleRadius and ProgressArcWidth can't be greater than width or height. " +
-                            "MainCircleRadius=" + mMainCircleRadius + "px, ProgressArcWidth=" + mProgressArcWidth + "px, width=" + width + "px, height=" + height + "px");
+        float zoom = mDragZoom.getZoom();
+        if (zoom != mDispatchedZoom) {
+            mDispatchedZoom = zoom;
+            for (Object listener : mZoomListeners.getListeners()) {
+                ((OnZoomChangeListener) listener).onZoomChanged(zoom);
+            }
         }
-        if (mIconSize / Math.sqrt(2) > mMainCircleRadius) {
-            throw new ConsistencyValidationException(
-                    "Icon can't be inscribed in the main button area. " +
-                            "MainCircleRadius=" + mMainCircleRadius + "px, IconSize=" + mIconSize + "px");
+    }
+
+    /**
+     * Notifies {@link OnPhotoPrecaptureListener} about touch which can result into photo
+     */
+    void dispatchPrecapture() {
+        if (isPressable() && mPhotoListeners.contains(OnPhotoPrecaptureListener.class)) {
+            mIsPrecapturePending = true;
+            for (Object listener : mPhotoListeners.getListeners()) {
+                if (listener instanceof OnPhotoPrecaptureListener) {
+                    ((OnPhotoPrecaptureListener) listener).onPrecapture();
+                }
+            }
         }
     }
 
-    private void invalidateProgressArcArea(int centerX, int centerY, float strokeRadius, float arcWidth) {
-        float expandedAreaOffset = arcWidth / 2f;
-        mProgressArcArea.top = centerY - strokeRadius + expandedAreaOffset;
-        mProgressArcArea.left = centerX - strokeRadius + expandedAreaOffset;
-        mProgressArcArea.bottom = centerY + strokeRadius - expandedAreaOffset;
-        mProgressArcArea.right = centerX + strokeRadius - expandedAreaOffset;
+    /**
+     * Notifies {@link OnVideoWarmUpListener} about likely video. Dispatched only once per gesture.
+     */
+    void dispatchWarmUpIfNeeded() {
+        if (!mIsWarmUpPending && isExpandable() && mVideoListeners.contains(OnVideoWarmUpListener.class)) {
+            mIsWarmUpPending = true;
+            for (Object listener : mVideoListeners.getListeners()) {
+                if (listener instanceof OnVideoWarmUpListener) {
+                    ((OnVideoWarmUpListener) listener).onWarmUp();
+                }
+            }
+        }
+    }
+
+    void dispatchWarmUpAbortedIfNeeded() {
+        if (mIsWarmUpPending) {
+            mIsWarmUpPending = false;
+            for (Object listener : mVideoListeners.getListeners()) {
+                if (listener instanceof OnVideoWarmUpListener) {
+                    ((OnVideoWarmUpListener) listener).onWarmUpAborted();
+                }
+            }
+        }
+    }
+
+    void dispatchPrecaptureAbortedIfNeeded() {
+        if (mIsPrecapturePending) {
+            mIsPrecapturePending = false;
+            for (Object listener : mPhotoListeners.getListeners()) {
+                if (listener instanceof OnPhotoPrecaptureListener) {
+                    ((OnPhotoPrecaptureListener) listener).onPrecaptureAborted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Handle progress changing. Notifies {@link #mProgressListeners} only.
+     *
+     * @param progress - new progress value
+     */
+    void dispatchProgressChange(float progress) {
+        if (!mProgressListeners.isEmpty() && mProgressThrottle.shouldDispatch(progress, mVideoDuration)) {
+            for (Object listener : mProgressListeners.getListeners()) {
+                ((OnProgressChangeListener) listener).onProgressChanged(progress);
+            }
+        }
+    }
+
+    /**
+     * Sets an listener used to be notified about state changes
+     * Replaces only the listener set by the previous call, listeners added by
+     * {@link #addOnStateChangeListener} are kept.
+     *
+     * @param listener new listener to observe state changes
+     */
+    public void setOnStateChangeListener(@Nullable OnStateChangeListener listener) {
+        mStateListeners.set(listener);
+    }
+
+    /**
+     * Adds a listener used to be notified about state changes along with already added ones
+     *
+     * @param listener listener to add, adding the same listener twice has no effect
+     */
+    public void addOnStateChangeListener(@NonNull OnStateChangeListener listener) {
+        mStateListeners.add(listener);
     }
 
     /**
-     * Creates gradient shader for progress arc
+     * Removes a listener added by {@link #addOnStateChangeListener} or set by {@link #setOnStateChangeListener}
      *
-     * @param width  - width of the canvas
-     * @param height - height of the canvas
-     * @return gradient shader
+     * @param listener listener to remove
      */
-    private Shader createGradient(int width, int height) {
-        return new LinearGradient(0, 0, width, height,
-                mProgressArcColors, null, Shader.TileMode.MIRROR);
+    public void removeOnStateChangeListener(@NonNull OnStateChangeListener listener) {
+        mStateListeners.remove(listener);
     }
 
-    private void invalidateIcons() {
-        mIconMatrices = new Matrix[mIconShaders.length];
-        mIconPaints = new Paint[mIconShaders.length];
-
-        for (int i = 0; i < mIconShaders.length; i++) {
-            Shader shader = mIconShaders[i];
-
-            Matrix matrix = new Matrix();
-            shader.setLocalMatrix(matrix);
-            mIconMatrices[i] = matrix;
-
-            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            paint.setShader(shader);
-
-            mIconPaints[i] = paint;
-        }
+    /**
+     * Sets an listener used to be notified about photo-related events.
+     * Pass {@link OnPhotoPrecaptureListener} to be notified about likely photo on touch down.
+     * Pass {@link OnTimedPhotoEventListener} to receive timestamps of the events.
+     * Replaces only the listener set by the previous call, listeners added by
+     * {@link #addOnPhotoEventListener} are kept.
+     *
+     * @param listener new listener to observe photo events
+     */
+    public void setOnPhotoEventListener(@Nullable OnPhotoEventListener listener) {
+        mPhotoListeners.set(listener);
     }
 
-    private void disposeIcons() {
-        mIconPosition = NO_ICON;
-        mIconShaders = null;
-        mIconPaints = null;
-        mIconMatrices = null;
+    /**
+     * Adds a listener used to be notified about photo events along with already added ones
+     *
+     * @param listener listener to add, adding the same listener twice has no effect
+     */
+    public void addOnPhotoEventListener(@NonNull OnPhotoEventListener listener) {
+        mPhotoListeners.add(listener);
     }
 
-    private boolean isPressable() {
-        return mCurrentMode == Mode.ALL || mCurrentMode == Mode.PHOTO;
+    /**
+     * Removes a listener added by {@link #addOnPhotoEventListener} or set by {@link #setOnPhotoEventListener}
+     *
+     * @param listener listener to remove
+     */
+    public void removeOnPhotoEventListener(@NonNull OnPhotoEventListener listener) {
+        mPhotoListeners.remove(listener);
     }
 
-    private boolean isExpandable() {
-        return mCurrentMode == Mode.ALL || mCurrentMode == Mode.VIDEO;
+    /**
+     * Sets an listener used to be notified about video-related events.
+     * Pass {@link OnVideoWarmUpListener} to be notified about likely video before the button is expanded,
+     * {@link OnTimedVideoEventListener} to receive timestamps of the events.
+     * Replaces only the listener set by the previous call, listeners added by
+     * {@link #addOnVideoEventListener} are kept.
+     *
+     * @param listener new listener to observe video events
+     */
+    public void setOnVideoEventListener(@Nullable OnVideoEventListener listener) {
+        mVideoListeners.set(listener);
     }
 
     /**
-     * Scrolls icons with animation to concrete position.
-     * The position is float since it is valid to scroll to an intermediate position (e.g. 0.5f)
+     * Adds a listener used to be notified about video events along with already added ones
      *
-     * @param position to which icons should be scrolled
-     * @throws IllegalStateException if icons are not set
-     * @throws IllegalStateException if position is greater than icons count
+     * @param listener listener to add, adding the same listener twice has no effect
      */
-    public void scrollIconsToPosition(@FloatRange(from = 0f) float position) {
-        checkCanScroll(position);
-        cancelScrollIfNeeded();
-
-        float from = mIconPosition == NO_ICON ? 0 : mIconPosition;
-
-        mIconScrollAnimator = ValueAnimator.ofFloat(from, position);
-        mIconScrollAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                mIconPosition = (float) animation.getAnimatedValue();
-                invalidate();
-            }
-        });
-        mIconScrollAnimator.setInterpolator(Interpolators.getDecelerateInterpolator());
-
-        long duration = (long) (Math.abs(from - position) * mIconScrollDuration);
-        mIconScrollAnimator.setDuration(duration);
-
-        mIconScrollAnimator.start();
+    public void addOnVideoEventListener(@NonNull OnVideoEventListener listener) {
+        mVideoListeners.add(listener);
     }
 
-    void cancelScrollIfNeeded() {
-        if (mIconScrollAnimator != null) {
-            mIconScrollAnimator.cancel();
-            mIconScrollAnimator = null;
-        }
+    /**
+     * Removes a listener added by {@link #addOnVideoEventListener} or set by {@link #setOnVideoEventListener}
+     *
+     * @param listener listener to remove
+     */
+    public void removeOnVideoEventListener(@NonNull OnVideoEventListener listener) {
+        mVideoListeners.remove(listener);
     }
 
     /**
-     * Immediately scrolls icons without animation to concrete position
-     * The position is float since it is valid to set an intermediate position (e.g. 0.5f)
+     * Sets an listener used to be notified about progress changes
+     * Replaces only the listener set by the previous call, listeners added by
+     * {@link #addOnProgressChangeListener} are kept.
      *
-     * @param position to which icons should be scrolled
-     * @throws IllegalStateException if icons are not set
-     * @throws IllegalStateException if position is greater than icons count
+     * @param listener new listener to observe progress
      */
-    public void setIconsPosition(@FloatRange(from = 0f) float position) {
-        checkCanScroll(position);
-        cancelScrollIfNeeded();
-
-        mIconPosition = position;
-        invalidate();
+    public void setOnProgressChangeListener(@Nullable OnProgressChangeListener listener) {
+        mProgressListeners.set(listener);
     }
 
-    private void checkCanScroll(float position) {
-        if (mIconPosition == NO_ICON && mIconShaders == null) {
-            throw new IllegalStateException(
-                    "`setIcons` must be called before `scrollIconsToPosition`/`setIconsPosition`");
-        }
-        if (position < 0) {
-            throw new IllegalStateException(
-                    "`position` (" + position + ") must be positive number");
-        }
-        if (position > mIconShaders.length) {
-            throw new IllegalStateException(
-                    "`position` (" + position + ") can't be greater than icons count (" + mIconShaders.length + ")");
-        }
+    /**
+     * Adds a listener used to be notified about progress along with already added ones
+     *
+     * @param listener listener to add, adding the same listener twice has no effect
+     */
+    public void addOnProgressChangeListener(@NonNull OnProgressChangeListener listener) {
+        mProgressListeners.add(listener);
     }
 
     /**
-     * Cancels video recording with animation
+     * Removes a listener added by {@link #addOnProgressChangeListener} or set by {@link #setOnProgressChangeListener}
+     *
+     * @param listener listener to remove
      */
-    public void cancel() {
-        cancel(true);
+    public void removeOnProgressChangeListener(@NonNull OnProgressChangeListener listener) {
+        mProgressListeners.remove(listener);
     }
 
     /**
-     * Cancels video recording.
-     * In case if animated = false then START_COLLAPSING state won't be dispatched to listeners
-     * <p>
-     * Always calls {@link OnVideoEventListener#onCancel()}
+     * Sets an listener used to be notified about zoom gesture:
+     * vertical drag of the held button while video is being recorded
+     * Replaces only the listener set by the previous call, listeners added by
+     * {@link #addOnZoomChangeListener} are kept.
      *
-     * @param animated indicates should canceling process be animated or not
+     * @param listener new listener to observe zoom
      */
-    public void cancel(boolean animated) {
-        cancelProgressAnimatorIfNeeded();
-        cancelExpandingAnimatorIfNeeded();
-        mIsCanceling = true;
-        if (animated) {
-            mCollapseAnimator = createCollapsingAnimator();
-            mCollapseAnimator.start();
-        } else {
-            dispatchStateChange(DEFAULT);
-            mShouldCollapseOnNextClick = false;
-            mExpandingFactor = 0f;
-            mProgressFactor = 0f;
-            invalidate();
-        }
+    public void setOnZoomChangeListener(@Nullable OnZoomChangeListener listener) {
+        mZoomListeners.set(listener);
     }
 
     /**
-     * Handle state changing. Notifies all listener except {@link #mProgressListener}
-     * about corresponding events.
+     * Adds a listener used to be notified about zoom along with already added ones
      *
-     * @param state - new state of the button
+     * @param listener listener to add, adding the same listener twice has no effect
      */
-    void dispatchStateChange(State state) {
-        Log.v(TAG, "dispatchStateChange " + mCurrentState + " -> " + state.name());
-
-        if (mStateListener != null) {
-            //In case if button isn't pressable (Mode#VIDEO) don't dispatch PRESSED state
-            if (state != PRESSED || isPressable()) {
-                mStateListener.onStateChanged(state);
-            }
-        }
-
-        if (mVideoListener != null && isExpandable()) {
-            if (state == EXPANDED) {
-                mVideoListener.onStart();
-            } else if (mCurrentState == EXPANDED && state == START_COLLAPSING) {
-                if (mIsCanceling) {
-                    mVideoListener.onCancel();
-                    mIsCanceling = false;
-                } else {
-                    mVideoListener.onFinish();
-                }
-            }
-        }
-
-        if (mPhotoListener != null && isPressable()) {
-            if (mCurrentState == PRESSED && state == DEFAULT ||
-                    mCurrentState == START_EXPANDING && state == START_COLLAPSING) {
-                mPhotoListener.onClick();
-            }
-        }
-
-        mCurrentState = state;
+    public void addOnZoomChangeListener(@NonNull OnZoomChangeListener listener) {
+        mZoomListeners.add(listener);
     }
 
     /**
-     * Handle progress changing. Notifies {@link #mProgressListener} only.
+     * Removes a listener added by {@link #addOnZoomChangeListener} or set by {@link #setOnZoomChangeListener}
      *
-     * @param progress - new progress value
+     * @param listener listener to remove
      */
-    void dispatchProgressChange(float progress) {
-        if (mProgressListener != null) {
-            mProgressListener.onProgressChanged(progress);
-        }
+    public void removeOnZoomChangeListener(@NonNull OnZoomChangeListener listener) {
+        mZoomListeners.remove(listener);
     }
 
     /**
-     * Sets an listener used to be notified about state changes
+     * Sets an listener used to be notified about latency of states caused by touch events
+     * Replaces only the listener set by the previous call, listeners added by
+     * {@link #addOnLatencyMeasuredListener} are kept.
      *
-     * @param listener new listener to observe state changes
+     * @param listener new listener to observe latency
      */
-    public void setOnStateChangeListener(@Nullable OnStateChangeListener listener) {
-        mStateListener = listener;
+    public void setOnLatencyMeasuredListener(@Nullable OnLatencyMeasuredListener listener) {
+        mLatencyProbe.getListeners().set(listener);
     }
 
     /**
-     * Sets an listener used to be notified about photo-related events
+     * Adds a listener used to be notified about latency along with already added ones
      *
-     * @param listener new listener to observe photo events
+     * @param listener listener to add, adding the same listener twice has no effect
      */
-    public void setOnPhotoEventListener(@Nullable OnPhotoEventListener listener) {
-        mPhotoListener = listener;
+    public void addOnLatencyMeasuredListener(@NonNull OnLatencyMeasuredListener listener) {
+        mLatencyProbe.getListeners().add(listener);
     }
 
     /**
-     * Sets an listener used to be notified about video-related events
+     * Removes a listener added by {@link #addOnLatencyMeasuredListener} or set by {@link #setOnLatencyMeasuredListener}
      *
-     * @param listener new listener to observe video events
+     * @param listener listener to remove
      */
-    public void setOnVideoEventListener(@Nullable OnVideoEventListener listener) {
-        mVideoListener = listener;
+    public void removeOnLatencyMeasuredListener(@NonNull OnLatencyMeasuredListener listener) {
+        mLatencyProbe.getListeners().remove(listener);
     }
 
     /**
-     * Sets an listener used to be notified about progress changes
-     *
-     * @param listener new listener to observe progress
+     * @return time in nanoseconds from the last touch event which caused passed state
+     * to dispatching of the state or {@link #NO_LATENCY} if it isn't measured yet
      */
-    public void setOnProgressChangeListener(@Nullable OnProgressChangeListener listener) {
-        mProgressListener = listener;
+    public long getTouchToDispatchLatency(@NonNull State state) {
+        return mLatencyProbe.getDispatchLatency(Constraints.checkNonNull(state));
+    }
+
+    /**
+     * @return time in nanoseconds from the last touch event which caused passed state
+     * to drawing of the first frame after that or {@link #NO_LATENCY} if it isn't measured yet
+     */
+    public long getTouchToFrameLatency(@NonNull State state) {
+        return mLatencyProbe.getFrameLatency(Constraints.checkNonNull(state));
     }
 
     /**
@@ -1080,6 +1920,7 @@ public class CameraButton extends View {
      */
     public void setMainCircleRadius(@Px int radius) {
         mMainCircleRadius = Constraints.checkDimension(radius);
+        updateGeometry();
         invalidate();
     }
 
@@ -1098,6 +1939,7 @@ public class CameraButton extends View {
      */
     public void setMainCircleRadiusExpanded(@Px int radius) {
         mMainCircleRadiusExpanded = Constraints.checkDimension(radius);
+        updateGeometry();
         invalidate();
     }
 
@@ -1108,6 +1950,7 @@ public class CameraButton extends View {
 
     public void setStrokeWidth(@Px int width) {
         mStrokeWidth = Constraints.checkDimension(width);
+        updateGeometry();
         invalidate();
     }
 
@@ -1118,6 +1961,7 @@ public class CameraButton extends View {
 
     public void setProgressArcWidth(@Px int width) {
         mProgressArcWidth = Constraints.checkDimension(width);
+        updateGeometry();
         invalidate();
     }
 
@@ -1165,7 +2009,6 @@ public class CameraButton extends View {
 
     public void setProgressArcColors(@ColorInt @NonNull int[] colors) {
         mProgressArcColors = Constraints.checkNonNull(colors).clone();
-        mInvalidateGradient = true;
         invalidate();
     }
 
@@ -1205,6 +2048,30 @@ public class CameraButton extends View {
         mExpandDelay = Constraints.checkDuration(delay);
     }
 
+    /**
+     * @return hold duration after which {@link OnVideoWarmUpListener#onWarmUp()} is invoked
+     * or {@link #NO_WARM_UP_DELAY} if it is invoked when button starts expanding
+     */
+    public long getVideoWarmUpDelay() {
+        return mVideoWarmUpDelay;
+    }
+
+    /**
+     * Sets hold duration after which {@link OnVideoWarmUpListener#onWarmUp()} is invoked.
+     * Warm-up is never dispatched later than button starts expanding,
+     * so delay longer than {@link #getExpandDelay()} has no effect.
+     * <p>
+     * By default is {@link #NO_WARM_UP_DELAY}.
+     *
+     * @param delay duration in milliseconds or {@link #NO_WARM_UP_DELAY}
+     */
+    public void setVideoWarmUpDelay(long delay) {
+        if (delay < 0 && delay != NO_WARM_UP_DELAY) {
+            throw new IllegalStateException("Delay should be non-negative or NO_WARM_UP_DELAY");
+        }
+        mVideoWarmUpDelay = delay;
+    }
+
     /**
      * @return a duration after which button will automatically start collapsing
      */
@@ -1222,6 +2089,118 @@ public class CameraButton extends View {
         mVideoDuration = Constraints.checkDuration(duration);
     }
 
+    /**
+     * @return how often progress listener is notified
+     */
+    @ProgressDispatchMode
+    public int getProgressDispatchMode() {
+        return mProgressThrottle.getMode();
+    }
+
+    /**
+     * Sets how often {@link OnProgressChangeListener} is notified.
+     * It doesn't affect drawing of progress arc.
+     * <p>
+     * By default progress is dispatched on every frame.
+     *
+     * @param mode new dispatch mode
+     */
+    public void setProgressDispatchMode(@ProgressDispatchMode int mode) {
+        mProgressThrottle.setMode(mode);
+    }
+
+    /**
+     * @return curve of expanding animation
+     */
+    @NonNull
+    public Interpolator getExpandInterpolator() {
+        return mExpandInterpolator;
+    }
+
+    /**
+     * Sets curve of expanding animation, e.g. {@link CubicBezierInterpolator}.
+     * The curve is sampled into lookup table once, so later changes
+     * of passed interpolator aren't reflected.
+     *
+     * @param interpolator new curve
+     */
+    public void setExpandInterpolator(@NonNull TimeInterpolator interpolator) {
+        mExpandInterpolator = LookupTableInterpolator.of(Constraints.checkNonNull(interpolator));
+    }
+
+    /**
+     * @return curve of collapsing animation
+     */
+    @NonNull
+    public Interpolator getCollapseInterpolator() {
+        return mCollapseInterpolator;
+    }
+
+    /**
+     * Sets curve of collapsing animation. The curve goes from 0 to 1
+     * while button goes from expanded to collapsed state.
+     * Sampled once the same way as {@link #setExpandInterpolator(TimeInterpolator)}.
+     *
+     * @param interpolator new curve
+     */
+    public void setCollapseInterpolator(@NonNull TimeInterpolator interpolator) {
+        mCollapseInterpolator = LookupTableInterpolator.of(Constraints.checkNonNull(interpolator));
+    }
+
+    /**
+     * @return curve of icons scroll animation
+     */
+    @NonNull
+    public Interpolator getIconScrollInterpolator() {
+        return mIconScrollInterpolator;
+    }
+
+    /**
+     * Sets curve of icons scroll animation.
+     * Sampled once the same way as {@link #setExpandInterpolator(TimeInterpolator)}.
+     *
+     * @param interpolator new curve
+     */
+    public void setIconScrollInterpolator(@NonNull TimeInterpolator interpolator) {
+        mIconScrollInterpolator = LookupTableInterpolator.of(Constraints.checkNonNull(interpolator));
+    }
+
+    /**
+     * @return interval used in {@link ProgressDispatchMode#INTERVAL}
+     */
+    @IntRange(from = 1)
+    public long getProgressDispatchInterval() {
+        return mProgressThrottle.getInterval();
+    }
+
+    /**
+     * Sets interval of recording time between progress notifications
+     * in {@link ProgressDispatchMode#INTERVAL}. By default is 1000 milliseconds.
+     *
+     * @param interval interval in milliseconds
+     */
+    public void setProgressDispatchInterval(@IntRange(from = 1) long interval) {
+        mProgressThrottle.setInterval(interval);
+    }
+
+    /**
+     * @return step used in {@link ProgressDispatchMode#STEP}
+     */
+    @FloatRange(from = 0, to = 1, fromInclusive = false)
+    public float getProgressDispatchStep() {
+        return mProgressThrottle.getStep();
+    }
+
+    /**
+     * Sets step of progress value between progress notifications
+     * in {@link ProgressDispatchMode#STEP}. By default is 0.01.
+     *
+     * @param step new step, e.g. 0.05 notifies listener every 5%
+     */
+    public void setProgressDispatchStep(@FloatRange(from = 0, to = 1, fromInclusive = false) float step) {
+        mProgressThrottle.setStep(step);
+    }
+
     /**
      * @return how much times faster gradient rotates comparatively to progress
      */
@@ -1245,6 +2224,7 @@ public class CameraButton extends View {
             throw new IllegalStateException("Multiplier should be greater than 0");
         }
         mGradientRotationMultiplier = multiplier;
+        updateProgressFrameInterval();
     }
 
     /**
@@ -1252,16 +2232,16 @@ public class CameraButton extends View {
      */
     @NonNull
     public State getState() {
-        return mCurrentState;
+        return STATES[mStateMachine.getState()];
     }
 
     @Mode
     public int getMode() {
-        return mCurrentMode;
+        return mStateMachine.getMode();
     }
 
     public void setMode(@Mode int mode) {
-        mCurrentMode = mode;
+        mStateMachine.setMode(mode);
     }
 
     /**
@@ -1269,7 +2249,7 @@ public class CameraButton extends View {
      */
     @Action
     public int getCollapseAction() {
-        return mCollapseAction;
+        return mStateMachine.getCollapseAction();
     }
 
     /**
@@ -1279,7 +2259,7 @@ public class CameraButton extends View {
      * @param action new action flag
      */
     public void setCollapseAction(@Action int action) {
-        mCollapseAction = action;
+        mStateMachine.setCollapseAction(action);
     }
 
     /**
@@ -1298,6 +2278,59 @@ public class CameraButton extends View {
         mShouldCheckConsistency = checkConsistency;
     }
 
+    /**
+     * @return renderer which draws the button
+     */
+    @NonNull
+    public ButtonRenderer getRenderer() {
+        return mRenderer;
+    }
+
+    /**
+     * Sets renderer which draws layers of the button.
+     * By default {@link DefaultButtonRenderer} is used.
+     * <p>
+     * E.g. {@link FlatButtonRenderer} can be used for low-end devices.
+     *
+     * @param renderer new renderer, must not be shared with other buttons
+     */
+    public void setRenderer(@NonNull ButtonRenderer renderer) {
+        mRenderer = Constraints.checkNonNull(renderer);
+        mRenderer.onIconsChanged(mIcons);
+        invalidateLayers();
+        invalidate();
+    }
+
+    /**
+     * @return whatever appearance of the button in {@link State#DEFAULT} state is cached
+     */
+    public boolean isIdleLayerCacheEnabled() {
+        return mIdleLayerCacheEnabled;
+    }
+
+    /**
+     * Sets whatever appearance of the button in {@link State#DEFAULT} state should be
+     * rendered once into a bitmap and reused until size, radii, colors or icons position
+     * are changed.
+     * <p>
+     * Useful when the button is invalidated often without any visual changes.
+     * By default is disabled.
+     *
+     * @param enabled new value
+     */
+    public void setIdleLayerCacheEnabled(boolean enabled) {
+        mIdleLayerCacheEnabled = enabled;
+        if (enabled) {
+            if (mIdleLayer == null) {
+                mIdleLayer = new IdleLayer();
+            }
+        } else if (mIdleLayer != null) {
+            mIdleLayer.release();
+            mIdleLayer = null;
+        }
+        invalidate();
+    }
+
     /**
      * @return an size of the icons in pixels which are drawn inside the button
      */
@@ -1313,6 +2346,32 @@ public class CameraButton extends View {
      */
     public void setIconSize(@Px int iconSize) {
         mIconSize = Constraints.checkDimension(iconSize);
+        updateGeometry();
+        if (mIcons != null) {
+            //Icons are prescaled, so they are scaled again instead of being stretched on every frame
+            mIcons = mIcons.resize(mIconSize);
+            mRenderer.onIconsChanged(mIcons);
+        }
+        invalidateLayers();
+        invalidate();
+    }
+
+    /**
+     * @return distance of vertical drag in pixels which changes zoom from 0 to 1
+     */
+    @Px
+    public int getZoomDragDistance() {
+        return mDragZoom.getDistance();
+    }
+
+    /**
+     * Sets distance of vertical drag which changes zoom from 0 to 1
+     *
+     * @param distance new distance in pixels
+     * @see OnZoomChangeListener
+     */
+    public void setZoomDragDistance(@Px int distance) {
+        mDragZoom.setDistance(distance);
     }
 
     /**
@@ -1368,14 +2427,53 @@ public class CameraButton extends View {
             return;
         }
 
-        BitmapShader[] shaders = new BitmapShader[icons.length];
-        for (int i = 0; i < icons.length; i++) {
-            Bitmap bitmap = Bitmap.createScaledBitmap(icons[i], mIconSize, mIconSize, false);
-            shaders[i] = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
-        }
+        mIcons = ButtonIcons.create(icons, mIconSize, mIconAtlasEnabled);
+        mRenderer.onIconsChanged(mIcons);
+    }
+
+    /**
+     * @return whatever volume keys act as shutter when the button is focused
+     */
+    public boolean isVolumeKeysEnabled() {
+        return mVolumeKeysEnabled;
+    }
+
+    /**
+     * Sets whatever volume up and down keys press the button the same way as camera key does.
+     * Applied only while the button is focused, otherwise keys keep changing volume.
+     * <p>
+     * By default is disabled.
+     *
+     * @param enabled new value
+     */
+    public void setVolumeKeysEnabled(boolean enabled) {
+        mVolumeKeysEnabled = enabled;
+    }
+
+    /**
+     * @return whatever icons are packed into a single atlas bitmap
+     */
+    public boolean isIconAtlasEnabled() {
+        return mIconAtlasEnabled;
+    }
 
-        mIconShaders = shaders;
-        invalidateIcons();
+    /**
+     * Sets whatever icons should be packed into a single bitmap instead of
+     * keeping separate bitmap per icon. In this case only one texture is uploaded
+     * regardless of icons count, which is useful when the button has many modes.
+     * Already set icons are repacked.
+     * <p>
+     * By default is disabled.
+     *
+     * @param enabled new value
+     */
+    public void setIconAtlasEnabled(boolean enabled) {
+        mIconAtlasEnabled = enabled;
+        if (mIcons != null) {
+            mIcons = mIcons.repack(enabled);
+            mRenderer.onIconsChanged(mIcons);
+            invalidate();
+        }
     }
 
     /**
@@ -1392,6 +2490,8 @@ public class CameraButton extends View {
      * DEFAULT -&gt; PRESSED -&gt; DEFAULT
      * DEFAULT -&gt; START_EXPANDING -&gt; EXPANDED -&gt; START_COLLAPSING -&gt; DEFAULT
      * DEFAULT -&gt; START_EXPANDING -&gt; EXPANDED -[cancel]-&gt; DEFAULT
+     * <p>
+     * Declared in order of states of internal state machine, which indexes its tables by them.
      */
     public enum State {
 
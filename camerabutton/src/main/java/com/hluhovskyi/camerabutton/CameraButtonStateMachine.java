@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+/**
+ * Gesture and state logic of {@link CameraButton} without any framework dependency.
+ * <p>
+ * Gestures are translated to commands by {@link #GESTURE_COMMANDS} table
+ * and state changes are translated to events by {@link #TRANSITION_EVENTS} table
+ * masked by {@link #MODE_EVENTS}. The view only executes commands and dispatches events,
+ * so every decision can be verified on plain JVM.
+ * <p>
+ * States, modes and actions are plain ints owned by the machine,
+ * {@link CameraButton} exposes them as {@link CameraButton.State},
+ * {@link CameraButton.Mode} and {@link CameraButton.Action}.
+ */
+final class CameraButtonStateMachine {
+
+    //States, rows of tables, declared in order of CameraButton.State
+    static final int STATE_DEFAULT = 0;
+    static final int STATE_PRESSED = 1;
+    static final int STATE_START_EXPANDING = 2;
+    static final int STATE_EXPANDED = 3;
+    static final int STATE_START_COLLAPSING = 4;
+    static final int STATE_COUNT = 5;
+
+    //Modes, indices of mode tables
+    static final int MODE_ALL = 0;
+    static final int MODE_PHOTO = 1;
+    static final int MODE_VIDEO = 2;
+
+    //Collapse actions, first index of gesture table
+    static final int ACTION_RELEASE = 0;
+    static final int ACTION_CLICK = 1;
+
+    //Gestures, columns of gesture table
+    static final int GESTURE_PRESS = 0;
+    static final int GESTURE_RELEASE_INSIDE = 1;
+    static final int GESTURE_RELEASE_OUTSIDE = 2;
+    static final int GESTURE_CANCEL = 3;
+    static final int GESTURE_TOGGLE = 4;
+    static final int GESTURE_CLICK = 5;
+
+    //Commands which view executes in response to a gesture
+    static final int COMMAND_NONE = 0;
+    static final int COMMAND_PRESS = 1;
+    static final int COMMAND_HOVER = 2;
+    static final int COMMAND_RELEASE_HOLD = 3;
+    static final int COMMAND_IGNORE = 4;
+    static final int COMMAND_COLLAPSE = 5;
+    static final int COMMAND_CLICK = 6;
+    static final int COMMAND_ABORT_PRESS = 7;
+    static final int COMMAND_CANCEL = 8;
+    static final int COMMAND_EXPAND = 9;
+
+    //Events which view dispatches to listeners on state change
+    static final int EVENT_STATE = 1;
+    static final int EVENT_PRESSED_STATE = 1 << 1;
+    static final int EVENT_PHOTO_CLICK = 1 << 2;
+    static final int EVENT_VIDEO_START = 1 << 3;
+    static final int EVENT_VIDEO_FINISH = 1 << 4;
+    static final int EVENT_VIDEO_CANCEL = 1 << 5;
+    static final int EVENT_WARM_UP = 1 << 6;
+    static final int EVENT_WARM_UP_ABORT = 1 << 7;
+    static final int EVENT_PRECAPTURE_ABORT = 1 << 8;
+
+    private static final int PHOTO_EVENTS = EVENT_PRESSED_STATE | EVENT_PHOTO_CLICK;
+    private static final int VIDEO_EVENTS = EVENT_VIDEO_START | EVENT_VIDEO_FINISH
+            | EVENT_VIDEO_CANCEL | EVENT_WARM_UP;
+
+    //Aliases which keep gesture table readable
+    private static final int NO = COMMAND_NONE;
+    private static final int PR = COMMAND_PRESS;
+    private static final int HV = COMMAND_HOVER;
+    private static final int RH = COMMAND_RELEASE_HOLD;
+    private static final int IG = COMMAND_IGNORE;
+    private static final int CO = COMMAND_COLLAPSE;
+    private static final int CL = COMMAND_CLICK;
+    private static final int AB = COMMAND_ABORT_PRESS;
+    private static final int CA = COMMAND_CANCEL;
+    private static final int EX = COMMAND_EXPAND;
+
+    /**
+     * Indexed by [collapse action][is button free][state][gesture].
+     * Button is free when it stays expanded without being held and collapses on the next click.
+     */
+    static final int[][][][] GESTURE_COMMANDS = {
+            //ACTION_RELEASE
+            {
+                    //Held
+                    {
+                            //PRESS RELEASE_IN RELEASE_OUT CANCEL TOGGLE CLICK
+                            {PR, NO, NO, NO, EX, NO}, //DEFAULT
+                            {PR, CL, CL, AB, NO, NO}, //PRESSED
+                            {PR, CO, CO, CA, CA, NO}, //START_EXPANDING
+                            {PR, CO, CO, CA, CO, NO}, //EXPANDED
+                            {PR, NO, NO, NO, NO, NO}, //START_COLLAPSING
+                    },
+                    //Free
+                    {
+                            {PR, NO, NO, NO, EX, NO},
+                            {PR, CL, CL, AB, NO, NO},
+                            {HV, CO, CO, NO, CA, NO},
+                            {HV, CO, CO, NO, CO, NO},
+                            {PR, NO, NO, NO, NO, NO},
+                    },
+            },
+            //ACTION_CLICK
+            {
+                    //Held
+                    {
+                            {PR, NO, NO, NO, EX, NO},
+                            {PR, CL, CL, AB, NO, NO},
+                            {PR, RH, RH, CA, CA, CO},
+                            {PR, RH, RH, CA, CO, CO},
+                            {PR, NO, NO, NO, NO, NO},
+                    },
+                    //Free
+                    {
+                            {PR, NO, NO, NO, EX, NO},
+                            {PR, CL, CL, AB, NO, NO},
+                            {HV, CO, IG, NO, CA, CO},
+                            {HV, CO, IG, NO, CO, CO},
+                            {PR, NO, NO, NO, NO, NO},
+                    },
+            },
+    };
+
+    /**
+     * Indexed by [from state][to state]
+     */
+    static final int[][] TRANSITION_EVENTS;
+
+    static {
+        int toDefault = EVENT_STATE | EVENT_WARM_UP_ABORT;
+        int toPressed = EVENT_PRESSED_STATE;
+        int toExpanding = EVENT_STATE | EVENT_WARM_UP;
+        int toExpanded = EVENT_STATE | EVENT_VIDEO_START | EVENT_PRECAPTURE_ABORT;
+        int toCollapsing = EVENT_STATE | EVENT_WARM_UP_ABORT;
+
+        TRANSITION_EVENTS = new int[][]{
+                //DEFAULT, PRESSED, START_EXPANDING, EXPANDED, START_COLLAPSING
+                {toDefault, toPressed, toExpanding, toExpanded, toCollapsing},
+                {toDefault | EVENT_PHOTO_CLICK, toPressed, toExpanding, toExpanded, toCollapsing},
+                {toDefault, toPressed, toExpanding, toExpanded, toCollapsing | EVENT_PHOTO_CLICK},
+                {toDefault, toPressed, toExpanding, toExpanded, toCollapsing | EVENT_VIDEO_FINISH},
+                {toDefault, toPressed, toExpanding, toExpanded, toCollapsing},
+        };
+    }
+
+    /**
+     * Indexed by mode, events which the mode allows
+     */
+    static final int[] MODE_EVENTS = {
+            ~0,             //MODE_ALL
+            ~VIDEO_EVENTS,  //MODE_PHOTO
+            ~PHOTO_EVENTS,  //MODE_VIDEO
+    };
+
+    /**
+     * Indexed by mode, bit mask of gestures which the mode allows
+     */
+    static final int[] MODE_GESTURES = {
+            ~0,                         //MODE_ALL
+            ~(1 << GESTURE_TOGGLE),     //MODE_PHOTO
+            ~0,                         //MODE_VIDEO
+    };
+
+    private int mState = STATE_DEFAULT;
+    private int mMode;
+    private int mCollapseAction;
+    private boolean mShouldCollapseOnNextClick = false;
+    private boolean mIsCanceling = false;
+
+    CameraButtonStateMachine(int mode, int collapseAction) {
+        setMode(mode);
+        setCollapseAction(collapseAction);
+    }
+
+    /**
+     * @return command which view has to execute in response to the gesture
+     */
+    int onGesture(int gesture) {
+        if ((MODE_GESTURES[mMode] & (1 << gesture)) == 0) {
+            return COMMAND_NONE;
+        }
+        int free = mShouldCollapseOnNextClick ? 1 : 0;
+        int command = GESTURE_COMMANDS[mCollapseAction][free][mState][gesture];
+        if (command == COMMAND_RELEASE_HOLD || command == COMMAND_EXPAND) {
+            mShouldCollapseOnNextClick = true;
+        }
+        return command;
+    }
+
+    /**
+     * Doesn't change the state, so listeners notified about the events
+     * still observe previous state. Has to be followed by {@link #moveTo(int)}.
+     *
+     * @return bit mask of events of the transition from current state to passed one
+     */
+    int getTransitionEvents(int to) {
+        int events = TRANSITION_EVENTS[mState][to] & MODE_EVENTS[mMode];
+        if (mIsCanceling) {
+            if ((events & EVENT_VIDEO_FINISH) != 0) {
+                events = events & ~EVENT_VIDEO_FINISH | EVENT_VIDEO_CANCEL;
+            }
+            events &= ~EVENT_PHOTO_CLICK;
+        }
+        return events;
+    }
+
+    void moveTo(int to) {
+        if (to == STATE_START_COLLAPSING || to == STATE_DEFAULT) {
+            mShouldCollapseOnNextClick = false;
+        }
+        //Canceling ends once cancel is reported or button is back to idle
+        if (to == STATE_DEFAULT || mState == STATE_EXPANDED && to == STATE_START_COLLAPSING) {
+            mIsCanceling = false;
+        }
+        mState = to;
+    }
+
+    /**
+     * Marks following transitions as caused by cancel, so they aren't reported as photo or video
+     */
+    void startCanceling() {
+        mIsCanceling = true;
+    }
+
+    boolean isCanceling() {
+        return mIsCanceling;
+    }
+
+    boolean shouldCollapseOnNextClick() {
+        return mShouldCollapseOnNextClick;
+    }
+
+    boolean isExpandingOrExpanded() {
+        return mState == STATE_START_EXPANDING || mState == STATE_EXPANDED;
+    }
+
+    boolean isPressable() {
+        return (MODE_EVENTS[mMode] & EVENT_PHOTO_CLICK) != 0;
+    }
+
+    boolean isExpandable() {
+        return (MODE_EVENTS[mMode] & EVENT_VIDEO_START) != 0;
+    }
+
+    int getState() {
+        return mState;
+    }
+
+    int getMode() {
+        return mMode;
+    }
+
+    void setMode(int mode) {
+        if (mode < 0 || mode >= MODE_EVENTS.length) {
+            throw new IllegalStateException("Unknown mode: " + mode);
+        }
+        mMode = mode;
+    }
+
+    int getCollapseAction() {
+        return mCollapseAction;
+    }
+
+    void setCollapseAction(int action) {
+        if (action < 0 || action >= GESTURE_COMMANDS.length) {
+            throw new IllegalStateException("Unknown collapse action: " + action);
+        }
+        mCollapseAction = action;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.content.Context;
+import android.graphics.SurfaceTexture;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.util.AttributeSet;
+import android.view.TextureView;
+import android.view.View;
+
+/**
+ * Off-main-thread render mode for the progress ring of {@link CameraButton}.
+ * <p>
+ * While button is {@link CameraButton.State#EXPANDED} its progress arc is drawn by this view
+ * from a dedicated thread according to the clock of the button, so the ring stays smooth
+ * even if main thread stalls. State changes and all listeners are still dispatched
+ * by the button on main thread.
+ * <p>
+ * The view has to be drawn above attached button and cover it, e.g. be its sibling
+ * declared after the button with the same or bigger bounds. The arc is positioned
+ * over the button by the view itself and follows layout changes of both views.
+ * <p>
+ * Usage:
+ * <pre>
+ *     &lt;FrameLayout ...&gt;
+ *         &lt;com.hluhovskyi.camerabutton.CameraButton
+ *             android:id="@+id/camera_button"
+ *             android:layout_width="wrap_content"
+ *             android:layout_height="wrap_content"
+ *             android:layout_gravity="center"/&gt;
+ *         &lt;com.hluhovskyi.camerabutton.CameraButtonTextureView
+ *             android:id="@+id/camera_button_progress"
+ *             android:layout_width="match_parent"
+ *             android:layout_height="match_parent"/&gt;
+ *     &lt;/FrameLayout&gt;
+ *
+ *     textureView.attach(cameraButton);
+ * </pre>
+ */
+@RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+public class CameraButtonTextureView extends TextureView {
+
+    private static final long NO_START_TIME = -1;
+
+    private final int[] mLocation = new int[2];
+
+    private CameraButton mButton;
+    private ProgressRenderThread mRenderThread;
+    Clock mPendingClock;
+    long mPendingStartTimeNanos = NO_START_TIME;
+
+    //Bounds of the button relative to this view
+    int mButtonLeft;
+    int mButtonTop;
+    int mButtonWidth;
+    int mButtonHeight;
+
+    private final CameraButton.ExternalProgressRenderer mProgressRenderer =
+            new CameraButton.ExternalProgressRenderer() {
+
+                @Override
+                public void onProgressStarted(CameraButton button, Clock clock, long startTimeNanos) {
+                    if (mRenderThread == null) {
+                        mPendingClock = clock;
+                        mPendingStartTimeNanos = startTimeNanos;
+                    } else {
+                        startProgress(clock, startTimeNanos);
+                    }
+                }
+
+                @Override
+                public void onProgressStopped(CameraButton button) {
+                    mPendingClock = null;
+                    mPendingStartTimeNanos = NO_START_TIME;
+                    if (mRenderThread != null) {
+                        mRenderThread.stopProgress();
+                    }
+                }
+            };
+
+    private final OnLayoutChangeListener mLayoutListener = new OnLayoutChangeListener() {
+
+        @Override
+        public void onLayoutChange(View v,
+                                   int left, int top, int right, int bottom,
+                                   int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            updateButtonBounds();
+        }
+    };
+
+    private final SurfaceTextureListener mSurfaceListener = new SurfaceTextureListener() {
+
+        @Override
+        public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+            createRenderThread(surface);
+        }
+
+        @Override
+        public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+            updateButtonBounds();
+        }
+
+        @Override
+        public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+            releaseRenderThread();
+            //Surface texture is released by render thread after last frame is drawn
+            return false;
+        }
+
+        @Override
+        public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+        }
+    };
+
+    public CameraButtonTextureView(Context context) {
+        this(context, null);
+    }
+
+    public CameraButtonTextureView(Context context,
+                                   @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public CameraButtonTextureView(Context context,
+                                   @Nullable AttributeSet attrs,
+                                   int defStyleAttr) {
+
+        super(context, attrs, defStyleAttr);
+        setOpaque(false);
+        setSurfaceTextureListener(mSurfaceListener);
+        addOnLayoutChangeListener(mLayoutListener);
+    }
+
+    /**
+     * Takes over drawing of progress ring of passed button.
+     * Previously attached button is detached.
+     *
+     * @param button button which progress should be drawn by this view
+     */
+    public void attach(@NonNull CameraButton button) {
+        Constraints.checkNonNull(button);
+        detach();
+        mButton = button;
+        mButton.setExternalProgressRenderer(mProgressRenderer);
+        mButton.addOnLayoutChangeListener(mLayoutListener);
+        updateButtonBounds();
+    }
+
+    /**
+     * Returns drawing of progress ring back to the button
+     */
+    public void detach() {
+        if (mButton != null) {
+            mButton.setExternalProgressRenderer(null);
+            mButton.removeOnLayoutChangeListener(mLayoutListener);
+            mButton = null;
+        }
+        mPendingClock = null;
+        mPendingStartTimeNanos = NO_START_TIME;
+        if (mRenderThread != null) {
+            mRenderThread.stopProgress();
+        }
+    }
+
+    void createRenderThread(SurfaceTexture surface) {
+        mRenderThread = new ProgressRenderThread(surface);
+        mRenderThread.prepare();
+        updateButtonBounds();
+
+        if (mPendingStartTimeNanos != NO_START_TIME) {
+            startProgress(mPendingClock, mPendingStartTimeNanos);
+            mPendingClock = null;
+            mPendingStartTimeNanos = NO_START_TIME;
+        }
+    }
+
+    void releaseRenderThread() {
+        if (mRenderThread != null) {
+            mRenderThread.release();
+            mRenderThread = null;
+        }
+    }
+
+    /**
+     * Finds where attached button is relative to this view, both views can be moved
+     * by layout, scroll or translation.
+     */
+    void updateButtonBounds() {
+        if (mButton == null) {
+            return;
+        }
+        getLocationInWindow(mLocation);
+        int left = -mLocation[0];
+        int top = -mLocation[1];
+        mButton.getLocationInWindow(mLocation);
+        mButtonLeft = left + mLocation[0];
+        mButtonTop = top + mLocation[1];
+        mButtonWidth = mButton.getWidth();
+        mButtonHeight = mButton.getHeight();
+
+        if (mRenderThread != null) {
+            mRenderThread.setButtonBounds(mButtonLeft, mButtonTop, mButtonWidth, mButtonHeight);
+        }
+    }
+
+    void startProgress(Clock clock, long startTimeNanos) {
+        if (mButton == null) {
+            return;
+        }
+        mRenderThread.startProgress(
+                clock,
+                startTimeNanos,
+                mButton.getVideoDuration(),
+                mButton.getProgressArcWidth(),
+                mButton.getProgressArcColors(),
+                mButton.getGradientRotationMultiplier());
+    }
+}
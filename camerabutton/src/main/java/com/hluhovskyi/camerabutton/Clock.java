@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.os.Build;
+import android.os.SystemClock;
+
+/**
+ * Monotonic clock used for timing which has to match wall-clock time,
+ * e.g. duration of video recording.
+ */
+interface Clock {
+
+    /**
+     * Clock which keeps running in deep sleep and isn't affected by animator duration scale
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+                return SystemClock.elapsedRealtimeNanos();
+            }
+            return SystemClock.elapsedRealtime() * 1000000L;
+        }
+    };
+
+    /**
+     * Clock in the same timebase as {@link android.view.MotionEvent#getEventTime()}
+     * but with nanosecond resolution
+     */
+    Clock UPTIME = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    long nanoTime();
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.support.annotation.FloatRange;
+import android.view.animation.Interpolator;
+
+/**
+ * Interpolator defined by cubic Bezier curve from (0, 0) to (1, 1)
+ * with two control points, the same way as CSS {@code cubic-bezier()} does.
+ * <p>
+ * Evaluation solves the curve numerically, so it is meant to be passed to
+ * {@link CameraButton} curve setters which sample it only once.
+ *
+ * @see CameraButton#setExpandInterpolator(android.animation.TimeInterpolator)
+ */
+public class CubicBezierInterpolator implements Interpolator {
+
+    private static final int NEWTON_ITERATIONS = 8;
+    private static final int BISECTION_ITERATIONS = 32;
+    private static final float EPSILON = 1e-6f;
+
+    private final float mX1;
+    private final float mY1;
+    private final float mX2;
+    private final float mY2;
+
+    public CubicBezierInterpolator(@FloatRange(from = 0, to = 1) float x1,
+                                   float y1,
+                                   @FloatRange(from = 0, to = 1) float x2,
+                                   float y2) {
+
+        if (x1 < 0 || x1 > 1 || x2 < 0 || x2 > 1) {
+            throw new IllegalStateException("X coordinates of control points should be in range [0, 1]");
+        }
+        mX1 = x1;
+        mY1 = y1;
+        mX2 = x2;
+        mY2 = y2;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0f) {
+            return 0f;
+        }
+        if (input >= 1f) {
+            return 1f;
+        }
+        return bezier(solveT(input), mY1, mY2);
+    }
+
+    /**
+     * Finds curve parameter for passed x. Newton's method converges fast for most curves,
+     * bisection is used as a fallback when derivative is too small.
+     */
+    private float solveT(float x) {
+        float t = x;
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            float error = bezier(t, mX1, mX2) - x;
+            if (Math.abs(error) < EPSILON) {
+                return t;
+            }
+            float derivative = bezierDerivative(t, mX1, mX2);
+            if (Math.abs(derivative) < EPSILON) {
+                break;
+            }
+            t -= error / derivative;
+        }
+
+        float low = 0f;
+        float high = 1f;
+        t = x;
+        for (int i = 0; i < BISECTION_ITERATIONS; i++) {
+            float value = bezier(t, mX1, mX2);
+            if (Math.abs(value - x) < EPSILON) {
+                break;
+            }
+            if (value < x) {
+                low = t;
+            } else {
+                high = t;
+            }
+            t = (low + high) / 2f;
+        }
+        return t;
+    }
+
+    private static float bezier(float t, float p1, float p2) {
+        float inverse = 1 - t;
+        return 3 * inverse * inverse * t * p1 + 3 * inverse * t * t * p2 + t * t * t;
+    }
+
+    private static float bezierDerivative(float t, float p1, float p2) {
+        float inverse = 1 - t;
+        return 3 * inverse * inverse * p1 + 6 * inverse * t * (p2 - p1) + 3 * t * t * (1 - p2);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Renderer which is used by {@link CameraButton} by default.
+ * <p>
+ * Draws anti-aliased circles, progress arc filled with rotating gradient
+ * and icons which are squashed through destination rect during scroll.
+ */
+public class DefaultButtonRenderer implements ButtonRenderer {
+
+    private static final float START_ANGLE = -90f;
+    private static final float SWEEP_ANGLE = 360f;
+    private static final float TRANSLATION_SCALE_THRESHOLD = 0.4f;
+
+    private final Paint mMainCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mProgressArcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF mProgressArcArea = new RectF();
+    private final Matrix mGradientMatrix = new Matrix();
+    private final ProgressGradient mGradient = new ProgressGradient();
+
+    //Icons
+    private final Paint mIconPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final RectF mIconArea = new RectF();
+    private ButtonIcons mIcons;
+
+    public DefaultButtonRenderer() {
+        mProgressArcPaint.setStyle(Paint.Style.STROKE);
+        mProgressArcPaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /**
+     * Icons are already scaled to {@link ButtonFrame#getIconSize()},
+     * so only horizontal squash is applied while they are scrolled.
+     */
+    @Override
+    public void onIconsChanged(@Nullable ButtonIcons icons) {
+        mIcons = icons;
+    }
+
+    @Override
+    public void drawStroke(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        mStrokePaint.setColor(frame.getStrokeColor());
+        canvas.drawCircle(frame.getCenterX(), frame.getCenterY(), frame.getStrokeRadius(), mStrokePaint);
+    }
+
+    @Override
+    public void drawProgressArc(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        int centerX = frame.getCenterX();
+        int centerY = frame.getCenterY();
+
+        invalidateGradientIfNeeded(frame);
+
+        float arcWidth = frame.getProgressArcWidth();
+        mProgressArcPaint.setStrokeWidth(arcWidth);
+
+        //Rotate only gradient shader through its local matrix,
+        //so canvas transformation stays untouched and arc isn't rotated.
+        mGradientMatrix.setRotate(frame.getGradientRotation(), centerX, centerY);
+        mProgressArcPaint.getShader().setLocalMatrix(mGradientMatrix);
+
+        float offset = frame.getStrokeRadius() - arcWidth / 2f;
+        mProgressArcArea.set(centerX - offset, centerY - offset, centerX + offset, centerY + offset);
+        canvas.drawArc(mProgressArcArea, START_ANGLE, SWEEP_ANGLE * frame.getProgressFactor(), false, mProgressArcPaint);
+    }
+
+    @Override
+    public void drawMainCircle(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        mMainCirclePaint.setColor(frame.getMainCircleColor());
+        canvas.drawCircle(frame.getCenterX(), frame.getCenterY(), frame.getMainCircleRadius(), mMainCirclePaint);
+    }
+
+    @Override
+    public void drawIcons(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        if (mIcons == null) {
+            return;
+        }
+
+        float position = frame.getIconPosition();
+        int leftIndex = (int) position;
+        float leftProgress = position - (int) position;
+        float rightProgress = 1 - leftProgress;
+
+        drawIcon(canvas, frame, leftIndex, leftProgress, true);
+
+        if (leftIndex < mIcons.getCount() - 1) {
+            drawIcon(canvas, frame, leftIndex + 1, rightProgress, false);
+        }
+    }
+
+    /**
+     * Since algorithm has differences between values calculation of right/left icons
+     * we have to pass some flag for identify icon side.
+     */
+    private void drawIcon(Canvas canvas, ButtonFrame frame, int index, float progress, boolean isLeftIcon) {
+        float centerX = frame.getWidth() / 2f;
+        float centerY = frame.getHeight() / 2f;
+        int iconSize = frame.getIconSize();
+
+        float iconWidth = calculateIconWidth(iconSize, progress);
+        float translation = calculateTranslation(frame.getMainCircleRadiusCollapsed(), iconSize, progress);
+
+        float left = isLeftIcon
+                ? centerX - iconSize / 2f - translation
+                : centerX + iconSize / 2f + translation - iconWidth;
+
+        //Squash is expressed by destination rect only, so bitmap and paint stay untouched
+        mIconArea.set(left, centerY - iconSize / 2f, left + iconWidth, centerY + iconSize / 2f);
+        mIconPaint.setAlpha((int) (255 * (1 - progress)));
+        mIcons.draw(canvas, index, mIconArea, mIconPaint);
+    }
+
+    private void invalidateGradientIfNeeded(ButtonFrame frame) {
+        Shader shader = mGradient.obtain(frame.getWidth(), frame.getHeight(), frame.getProgressArcColors());
+        if (mProgressArcPaint.getShader() != shader) {
+            mProgressArcPaint.setShader(shader);
+        }
+    }
+
+    static float calculateTranslation(int mainCircleRadius, int iconSize, float progress) {
+        float interpolated = progress <= TRANSLATION_SCALE_THRESHOLD
+                ? progress / TRANSLATION_SCALE_THRESHOLD
+                : 1f;
+
+        return (mainCircleRadius - iconSize / 2f) * interpolated;
+    }
+
+    static float calculateIconWidth(int iconSize, float progress) {
+        float interpolated = progress < TRANSLATION_SCALE_THRESHOLD
+                ? 0
+                : (progress - TRANSLATION_SCALE_THRESHOLD) / (1 - TRANSLATION_SCALE_THRESHOLD);
+
+        return iconSize - iconSize * interpolated;
+    }
+}
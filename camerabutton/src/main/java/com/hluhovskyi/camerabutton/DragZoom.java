@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.view.MotionEvent;
+
+/**
+ * Turns vertical drag into normalized zoom value where 0 is the lowest point of the drag
+ * and 1 is {@link #getDistance()} pixels above it.
+ * <p>
+ * Drag range follows the finger when it goes beyond either end, so reversing direction
+ * changes zoom immediately. That depends on path of the finger, so every sample
+ * including batched historical ones is applied in order.
+ */
+final class DragZoom {
+
+    private int mDistance;
+
+    //Y coordinate which corresponds to zoom = 0
+    private float mAnchorY;
+    private float mZoom;
+
+    int getDistance() {
+        return mDistance;
+    }
+
+    void setDistance(int distance) {
+        mDistance = Constraints.checkDimension(distance);
+    }
+
+    /**
+     * Starts new drag from passed point, zoom is reset to 0
+     */
+    void start(float y) {
+        mAnchorY = y;
+        mZoom = 0f;
+    }
+
+    /**
+     * Applies all samples of passed move event
+     *
+     * @return zoom value after the last sample
+     */
+    float add(MotionEvent event) {
+        for (int i = 0, size = event.getHistorySize(); i < size; i++) {
+            addSample(event.getHistoricalY(i));
+        }
+        addSample(event.getY());
+        return mZoom;
+    }
+
+    float getZoom() {
+        return mZoom;
+    }
+
+    private void addSample(float y) {
+        if (y > mAnchorY) {
+            mAnchorY = y;
+        } else if (y < mAnchorY - mDistance) {
+            mAnchorY = y + mDistance;
+        }
+        mZoom = (mAnchorY - y) / mDistance;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Lightweight renderer for low-end devices.
+ * <p>
+ * Draws circles without anti-aliasing, progress arc with the first of progress arc colors
+ * instead of gradient and only the nearest icon as a plain bitmap without scroll effects.
+ */
+public class FlatButtonRenderer implements ButtonRenderer {
+
+    private static final float START_ANGLE = -90f;
+    private static final float SWEEP_ANGLE = 360f;
+
+    private final Paint mPaint = new Paint();
+    private final Paint mProgressArcPaint = new Paint();
+    private final RectF mProgressArcArea = new RectF();
+    private final RectF mIconArea = new RectF();
+
+    private ButtonIcons mIcons;
+
+    public FlatButtonRenderer() {
+        mProgressArcPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    @Override
+    public void onIconsChanged(@Nullable ButtonIcons icons) {
+        mIcons = icons;
+    }
+
+    @Override
+    public void drawStroke(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        mPaint.setColor(frame.getStrokeColor());
+        canvas.drawCircle(frame.getCenterX(), frame.getCenterY(), frame.getStrokeRadius(), mPaint);
+    }
+
+    @Override
+    public void drawProgressArc(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        int centerX = frame.getCenterX();
+        int centerY = frame.getCenterY();
+        float arcWidth = frame.getProgressArcWidth();
+
+        mProgressArcPaint.setColor(frame.getProgressArcColors()[0]);
+        mProgressArcPaint.setStrokeWidth(arcWidth);
+
+        float offset = frame.getStrokeRadius() - arcWidth / 2f;
+        mProgressArcArea.set(centerX - offset, centerY - offset, centerX + offset, centerY + offset);
+        canvas.drawArc(mProgressArcArea, START_ANGLE, SWEEP_ANGLE * frame.getProgressFactor(), false, mProgressArcPaint);
+    }
+
+    @Override
+    public void drawMainCircle(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        mPaint.setColor(frame.getMainCircleColor());
+        canvas.drawCircle(frame.getCenterX(), frame.getCenterY(), frame.getMainCircleRadius(), mPaint);
+    }
+
+    @Override
+    public void drawIcons(@NonNull Canvas canvas, @NonNull ButtonFrame frame) {
+        if (mIcons == null) {
+            return;
+        }
+
+        int index = Math.min(Math.round(frame.getIconPosition()), mIcons.getCount() - 1);
+        float halfSize = frame.getIconSize() / 2f;
+        mIconArea.set(
+                frame.getCenterX() - halfSize,
+                frame.getCenterY() - halfSize,
+                frame.getCenterX() + halfSize,
+                frame.getCenterY() + halfSize);
+        mIcons.draw(canvas, index, mIconArea, null);
+    }
+}
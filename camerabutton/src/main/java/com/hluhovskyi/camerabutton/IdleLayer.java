@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+
+/**
+ * Bitmap cache of the button composition in {@link CameraButton.State#DEFAULT} state.
+ * <p>
+ * Layer is keyed on every input which affects idle appearance, so it is recorded once
+ * and blitted until one of them changes.
+ */
+final class IdleLayer {
+
+    private final Canvas mCanvas = new Canvas();
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private Bitmap mBitmap;
+    private int mGeneration = 0;
+    private boolean mIsValid = false;
+
+    //Key
+    private int mWidth;
+    private int mHeight;
+    private float mStrokeRadius;
+    private float mMainCircleRadius;
+    private int mMainCircleRadiusCollapsed;
+    private int mIconSize;
+    private int mStrokeColor;
+    private int mMainCircleColor;
+    private float mIconPosition;
+    private Object mIcons;
+
+    boolean isValid(ButtonFrame frame, Object icons) {
+        return mIsValid
+                && mWidth == frame.mWidth
+                && mHeight == frame.mHeight
+                && mStrokeRadius == frame.mStrokeRadius
+                && mMainCircleRadius == frame.mMainCircleRadius
+                && mMainCircleRadiusCollapsed == frame.mMainCircleRadiusCollapsed
+                && mIconSize == frame.mIconSize
+                && mStrokeColor == frame.mStrokeColor
+                && mMainCircleColor == frame.mMainCircleColor
+                && mIconPosition == frame.mIconPosition
+                && mIcons == icons;
+    }
+
+    /**
+     * Prepares cleared canvas for recording of new idle composition.
+     * Bitmap is reused as long as size of the view isn't changed.
+     *
+     * @return canvas which draws into the layer
+     */
+    Canvas beginRecording(ButtonFrame frame, Object icons) {
+        int width = frame.mWidth;
+        int height = frame.mHeight;
+
+        if (mBitmap == null || mBitmap.getWidth() != width || mBitmap.getHeight() != height) {
+            release();
+            mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mCanvas.setBitmap(mBitmap);
+        } else {
+            mCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        }
+
+        mWidth = width;
+        mHeight = height;
+        mStrokeRadius = frame.mStrokeRadius;
+        mMainCircleRadius = frame.mMainCircleRadius;
+        mMainCircleRadiusCollapsed = frame.mMainCircleRadiusCollapsed;
+        mIconSize = frame.mIconSize;
+        mStrokeColor = frame.mStrokeColor;
+        mMainCircleColor = frame.mMainCircleColor;
+        mIconPosition = frame.mIconPosition;
+        mIcons = icons;
+
+        mIsValid = true;
+        mGeneration++;
+        return mCanvas;
+    }
+
+    void draw(Canvas canvas) {
+        canvas.drawBitmap(mBitmap, 0, 0, mPaint);
+    }
+
+    void invalidate() {
+        mIsValid = false;
+    }
+
+    void release() {
+        mIsValid = false;
+        mIcons = null;
+        if (mBitmap != null) {
+            mCanvas.setBitmap(null);
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+
+    /**
+     * @return how many times the layer has been recorded
+     */
+    int getGeneration() {
+        return mGeneration;
+    }
+}
@@ -16,14 +16,23 @@
 
 package com.hluhovskyi.camerabutton;
 
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
+/**
+ * Default curves of the button. Non-linear curves are sampled into lookup tables once,
+ * linear one stays as is since identity is cheaper than a table read.
+ */
 final class Interpolators {
 
     private static final Interpolator LINEAR_INTERPOLATOR = new LinearInterpolator();
-    private static final Interpolator DECELERATE_INTERPOLATOR = new DecelerateInterpolator();
+    private static final Interpolator DECELERATE_INTERPOLATOR =
+            LookupTableInterpolator.of(new DecelerateInterpolator());
+    private static final Interpolator ACCELERATE_DECELERATE_INTERPOLATOR =
+            LookupTableInterpolator.of(new AccelerateDecelerateInterpolator());
+
     private static final float INTERPOLATING_ARC_WIDTH_FACTOR_FROM = 0.4f;
 
     static Interpolator getLinearInterpolator() {
@@ -34,6 +43,14 @@ final class Interpolators {
         return DECELERATE_INTERPOLATOR;
     }
 
+    static Interpolator getAccelerateDecelerateInterpolator() {
+        return ACCELERATE_DECELERATE_INTERPOLATOR;
+    }
+
+    /**
+     * Arc width is a clamped linear function, so it is computed directly
+     * instead of a table read and stays exact at the end of expanding
+     */
     static float interpolateArcWidth(float factor) {
         if (factor < INTERPOLATING_ARC_WIDTH_FACTOR_FROM) {
             return 0;
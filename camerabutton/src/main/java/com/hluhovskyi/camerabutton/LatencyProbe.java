@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import com.hluhovskyi.camerabutton.CameraButton.OnLatencyMeasuredListener;
+import com.hluhovskyi.camerabutton.CameraButton.State;
+
+/**
+ * Measures how long it takes from touch event to dispatching of the state caused by it
+ * and to the first frame which is drawn after that.
+ * <p>
+ * Latencies are stored per state, so measuring doesn't allocate.
+ * Times are measured by {@link Clock#UPTIME} which is the timebase of touch events.
+ */
+final class LatencyProbe {
+
+    private static final State[] STATES = State.values();
+    private static final long MILLIS_TO_NANOS = 1000000L;
+
+    private final long[] mDispatchLatencies = new long[STATES.length];
+    private final long[] mFrameLatencies = new long[STATES.length];
+    private final long[] mEventTimes = new long[STATES.length];
+
+    //Bit mask of ordinals of states which wait for the first frame
+    private int mPendingStates = 0;
+
+    private Clock mClock = Clock.UPTIME;
+    private final ListenerRegistry<OnLatencyMeasuredListener> mListeners = new ListenerRegistry<>();
+
+    LatencyProbe() {
+        for (int i = 0; i < STATES.length; i++) {
+            mDispatchLatencies[i] = CameraButton.NO_LATENCY;
+            mFrameLatencies[i] = CameraButton.NO_LATENCY;
+        }
+    }
+
+    void setClock(Clock clock) {
+        mClock = clock;
+    }
+
+    ListenerRegistry<OnLatencyMeasuredListener> getListeners() {
+        return mListeners;
+    }
+
+    /**
+     * Records latency of the state caused by touch event with passed time
+     *
+     * @param eventTime {@link android.view.MotionEvent#getEventTime()} of the event
+     */
+    void onDispatch(State state, long eventTime) {
+        int index = state.ordinal();
+        long eventTimeNanos = eventTime * MILLIS_TO_NANOS;
+        mEventTimes[index] = eventTimeNanos;
+        mDispatchLatencies[index] = mClock.nanoTime() - eventTimeNanos;
+        mFrameLatencies[index] = CameraButton.NO_LATENCY;
+        mPendingStates |= 1 << index;
+    }
+
+    /**
+     * Records latency of the first frame for every state which waits for it
+     * and notifies listeners about complete measurements
+     */
+    void onFrame() {
+        if (mPendingStates == 0) {
+            return;
+        }
+        long frameTimeNanos = mClock.nanoTime();
+        int pendingStates = mPendingStates;
+        mPendingStates = 0;
+
+        for (int i = 0; i < STATES.length; i++) {
+            if ((pendingStates & (1 << i)) == 0) {
+                continue;
+            }
+            mFrameLatencies[i] = frameTimeNanos - mEventTimes[i];
+            for (Object listener : mListeners.getListeners()) {
+                ((OnLatencyMeasuredListener) listener)
+                        .onLatencyMeasured(STATES[i], mDispatchLatencies[i], mFrameLatencies[i]);
+            }
+        }
+    }
+
+    long getDispatchLatency(State state) {
+        return mDispatchLatencies[state.ordinal()];
+    }
+
+    long getFrameLatency(State state) {
+        return mFrameLatencies[state.ordinal()];
+    }
+}
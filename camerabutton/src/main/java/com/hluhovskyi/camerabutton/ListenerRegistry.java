@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+/**
+ * Listeners of one type which are notified in order of adding.
+ * <p>
+ * Listeners are kept in copy-on-write array: adding and removing allocate new array
+ * while dispatching iterates over {@link #getListeners()} without allocation.
+ * Listener which is added or removed during dispatching is taken into account starting
+ * from the next one.
+ * <p>
+ * Listener passed to {@link #set(Object)} occupies separate slot, so setters of the view
+ * replace only the listener they set before and keep listeners added by others.
+ */
+final class ListenerRegistry<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] mListeners = EMPTY;
+    private T mSetListener;
+    private boolean mIsSetListenerAdded;
+
+    /**
+     * Adds listener to the end. Adding of already added listener has no effect.
+     */
+    void add(T listener) {
+        Constraints.checkNonNull(listener);
+        if (listener == mSetListener) {
+            //Explicitly added listener outlives its slot
+            mIsSetListenerAdded = false;
+        }
+        Object[] listeners = mListeners;
+        if (indexOf(listeners, listener) >= 0) {
+            return;
+        }
+        Object[] newListeners = new Object[listeners.length + 1];
+        System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+        newListeners[listeners.length] = listener;
+        mListeners = newListeners;
+    }
+
+    void remove(T listener) {
+        Object[] listeners = mListeners;
+        int index = indexOf(listeners, listener);
+        if (index < 0) {
+            return;
+        }
+        if (listener == mSetListener) {
+            mSetListener = null;
+            mIsSetListenerAdded = false;
+        }
+        if (listeners.length == 1) {
+            mListeners = EMPTY;
+            return;
+        }
+        Object[] newListeners = new Object[listeners.length - 1];
+        System.arraycopy(listeners, 0, newListeners, 0, index);
+        System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+        mListeners = newListeners;
+    }
+
+    /**
+     * Replaces listener passed to the previous call, null only removes it.
+     * Listener which was already added by {@link #add(Object)} stays added when it's replaced.
+     */
+    void set(T listener) {
+        T previous = mSetListener;
+        boolean isPreviousAdded = mIsSetListenerAdded;
+        mSetListener = null;
+        mIsSetListenerAdded = false;
+        if (previous != null && isPreviousAdded) {
+            remove(previous);
+        }
+        if (listener != null) {
+            mIsSetListenerAdded = indexOf(mListeners, listener) < 0;
+            add(listener);
+            mSetListener = listener;
+        }
+    }
+
+    /**
+     * @return snapshot of listeners which must not be modified
+     */
+    Object[] getListeners() {
+        return mListeners;
+    }
+
+    boolean isEmpty() {
+        return mListeners.length == 0;
+    }
+
+    /**
+     * @return true if any listener implements passed sub-interface
+     */
+    boolean contains(Class<?> type) {
+        for (Object listener : mListeners) {
+            if (type.isInstance(listener)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(Object[] listeners, Object listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.animation.TimeInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Interpolator which samples source curve once into a table,
+ * so evaluation costs a single array read.
+ * <p>
+ * {@value #SAMPLES} samples keep the error below a tenth of a pixel
+ * for typical button sizes, first and last values match source exactly.
+ */
+final class LookupTableInterpolator implements Interpolator {
+
+    static final int SAMPLES = 1024;
+
+    private final float[] mTable = new float[SAMPLES + 1];
+
+    private LookupTableInterpolator(TimeInterpolator source) {
+        for (int i = 0; i <= SAMPLES; i++) {
+            mTable[i] = source.getInterpolation((float) i / SAMPLES);
+        }
+    }
+
+    /**
+     * @return interpolator which follows passed curve, the same instance if it is already sampled
+     */
+    static LookupTableInterpolator of(TimeInterpolator source) {
+        if (source instanceof LookupTableInterpolator) {
+            return (LookupTableInterpolator) source;
+        }
+        return new LookupTableInterpolator(source);
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0f) {
+            return mTable[0];
+        }
+        if (input >= 1f) {
+            return mTable[SAMPLES];
+        }
+        return mTable[(int) (input * SAMPLES + 0.5f)];
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.LinearGradient;
+import android.graphics.Shader;
+
+import java.util.Arrays;
+
+/**
+ * Gradient of the progress arc which is owned by a single drawer.
+ * <p>
+ * Shader is created only when size or content of the colors array is changed,
+ * so steady frames and resubmitted equal colors don't allocate.
+ * Shader isn't shared between drawers since every drawer rotates it through its local matrix.
+ */
+final class ProgressGradient {
+
+    private Shader mShader;
+    private int mWidth;
+    private int mHeight;
+    private int[] mColors;
+
+    /**
+     * @param width  - width of the canvas
+     * @param height - height of the canvas
+     * @param colors - colors of the gradient, array isn't retained
+     * @return shader for passed size and colors
+     */
+    Shader obtain(int width, int height, int[] colors) {
+        if (mShader == null || mWidth != width || mHeight != height || !Arrays.equals(mColors, colors)) {
+            mWidth = width;
+            mHeight = height;
+            mColors = colors.clone();
+            mShader = new LinearGradient(0, 0, width, height, colors, null, Shader.TileMode.MIRROR);
+        }
+        return mShader;
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.SurfaceTexture;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.Process;
+import android.support.annotation.RequiresApi;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Surface;
+
+/**
+ * Thread which draws progress arc of expanded button into a {@link Surface}.
+ * <p>
+ * Frames are driven by the thread's own {@link Choreographer} so the arc doesn't depend
+ * on how busy main thread is. Progress is measured by the clock of the button,
+ * so the arc matches progress which the button dispatches to listeners.
+ * All public-for-package methods are expected to be called from main thread.
+ */
+@RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+final class ProgressRenderThread extends HandlerThread implements Handler.Callback, Choreographer.FrameCallback {
+
+    private static final String TAG = ProgressRenderThread.class.getSimpleName();
+
+    private static final int MSG_START = 0;
+    private static final int MSG_STOP = 1;
+    private static final int MSG_RELEASE = 2;
+
+    private static final float START_ANGLE = -90f;
+    private static final float SWEEP_ANGLE = 360f;
+
+    private final Object mLock = new Object();
+
+    //Guarded by mLock
+    private Clock mClock;
+    private long mStartTimeNanos;
+    private long mDurationNanos;
+    private float mArcWidth;
+    private int[] mColors;
+    private float mRotationMultiplier;
+    private boolean mIsRunning = false;
+    //Bounds of the button relative to the surface
+    private int mLeft;
+    private int mTop;
+    private int mWidth;
+    private int mHeight;
+
+    //Accessed only from render thread
+    private final Paint mArcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF mArcArea = new RectF();
+    private final Matrix mGradientMatrix = new Matrix();
+    private final Surface mSurface;
+    private final SurfaceTexture mSurfaceTexture;
+    private final ProgressGradient mGradient = new ProgressGradient();
+    private boolean mIsFrameScheduled = false;
+
+    private Handler mHandler;
+
+    ProgressRenderThread(SurfaceTexture surfaceTexture) {
+        super(TAG, Process.THREAD_PRIORITY_DISPLAY);
+        mSurfaceTexture = surfaceTexture;
+        mSurface = new Surface(surfaceTexture);
+
+        mArcPaint.setStyle(Paint.Style.STROKE);
+        mArcPaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /**
+     * Starts the thread and prepares handler for the messages.
+     */
+    void prepare() {
+        start();
+        mHandler = new Handler(getLooper(), this);
+    }
+
+    /**
+     * Sets area of the surface which is covered by the button, the arc is drawn inside of it
+     */
+    void setButtonBounds(int left, int top, int width, int height) {
+        synchronized (mLock) {
+            mLeft = left;
+            mTop = top;
+            mWidth = width;
+            mHeight = height;
+        }
+    }
+
+    /**
+     * @param clock          clock which measures progress, has to be thread-safe
+     * @param startTimeNanos time at which recording is started according to the clock
+     */
+    void startProgress(Clock clock,
+                       long startTimeNanos,
+                       long durationMillis,
+                       float arcWidth,
+                       int[] colors,
+                       float rotationMultiplier) {
+
+        synchronized (mLock) {
+            mClock = clock;
+            mStartTimeNanos = startTimeNanos;
+            mDurationNanos = durationMillis * 1000000L;
+            mArcWidth = arcWidth;
+            mColors = colors;
+            mRotationMultiplier = rotationMultiplier;
+            mIsRunning = true;
+        }
+        mHandler.sendEmptyMessage(MSG_START);
+    }
+
+    void stopProgress() {
+        synchronized (mLock) {
+            mIsRunning = false;
+        }
+        mHandler.sendEmptyMessage(MSG_STOP);
+    }
+
+    /**
+     * Releases surface and quits the thread once all pending messages are handled
+     */
+    void release() {
+        synchronized (mLock) {
+            mIsRunning = false;
+        }
+        mHandler.sendEmptyMessage(MSG_RELEASE);
+    }
+
+    @Override
+    public boolean handleMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_START:
+                scheduleFrameIfNeeded();
+                return true;
+
+            case MSG_STOP:
+                cancelFrameIfNeeded();
+                drawFrame(0, 0, 0, 0, -1f, 0f, 0f);
+                return true;
+
+            case MSG_RELEASE:
+                cancelFrameIfNeeded();
+                mSurface.release();
+                mSurfaceTexture.release();
+                quit();
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mIsFrameScheduled = false;
+
+        int left;
+        int top;
+        int width;
+        int height;
+        float progress;
+        float arcWidth;
+        float rotationMultiplier;
+        synchronized (mLock) {
+            if (!mIsRunning) {
+                return;
+            }
+            left = mLeft;
+            top = mTop;
+            width = mWidth;
+            height = mHeight;
+            //Frame time is in another timebase, so the clock is read directly
+            progress = (float) (mClock.nanoTime() - mStartTimeNanos) / mDurationNanos;
+            arcWidth = mArcWidth;
+            rotationMultiplier = mRotationMultiplier;
+            invalidateGradientIfNeeded(width, height, mColors);
+        }
+
+        progress = Math.max(0f, Math.min(1f, progress));
+        drawFrame(left, top, width, height, progress, arcWidth, rotationMultiplier);
+
+        if (progress < 1f) {
+            scheduleFrameIfNeeded();
+        }
+    }
+
+    private void scheduleFrameIfNeeded() {
+        if (!mIsFrameScheduled) {
+            mIsFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private void cancelFrameIfNeeded() {
+        if (mIsFrameScheduled) {
+            mIsFrameScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    private void invalidateGradientIfNeeded(int width, int height, int[] colors) {
+        Shader shader = mGradient.obtain(width, height, colors);
+        if (mArcPaint.getShader() != shader) {
+            mArcPaint.setShader(shader);
+        }
+    }
+
+    /**
+     * Draws the arc with the same geometry as {@link CameraButton} does for expanded state
+     * inside of passed bounds of the button. Negative progress only clears the surface.
+     */
+    private void drawFrame(int left,
+                           int top,
+                           int width,
+                           int height,
+                           float progress,
+                           float arcWidth,
+                           float rotationMultiplier) {
+        Canvas canvas;
+        try {
+            canvas = mSurface.lockCanvas(null);
+        } catch (IllegalArgumentException | Surface.OutOfResourcesException e) {
+            Log.w(TAG, "Unable to lock canvas: " + e.getMessage());
+            return;
+        }
+
+        try {
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            if (progress < 0f || arcWidth <= 0f) {
+                return;
+            }
+
+            canvas.translate(left, top);
+            int centerX = width / 2;
+            int centerY = height / 2;
+            float offset = Math.min(centerX, centerY) - arcWidth / 2f;
+            mArcArea.set(centerX - offset, centerY - offset, centerX + offset, centerY + offset);
+            mArcPaint.setStrokeWidth(arcWidth);
+
+            float gradientRotation = SWEEP_ANGLE * progress * rotationMultiplier;
+            mGradientMatrix.setRotate(gradientRotation, centerX, centerY);
+            mArcPaint.getShader().setLocalMatrix(mGradientMatrix);
+            canvas.drawArc(mArcArea, START_ANGLE, SWEEP_ANGLE * progress, false, mArcPaint);
+        } finally {
+            mSurface.unlockCanvasAndPost(canvas);
+        }
+    }
+}
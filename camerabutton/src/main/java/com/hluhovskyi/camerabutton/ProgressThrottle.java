@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import com.hluhovskyi.camerabutton.CameraButton.ProgressDispatchMode;
+
+/**
+ * Decides which progress values should be dispatched to
+ * {@link CameraButton.OnProgressChangeListener} according to configured granularity.
+ * <p>
+ * Progress is split into buckets (interval, step or second) and value is dispatched
+ * only when it moves to another bucket. First and final values are always dispatched.
+ */
+final class ProgressThrottle {
+
+    private static final long NO_BUCKET = -1;
+    private static final long MILLIS_IN_SECOND = 1000;
+
+    //Compensates float error, so e.g. 0.7 with step 0.1 falls into 7th bucket
+    private static final float STEP_EPSILON = 1e-4f;
+
+    @ProgressDispatchMode
+    private int mMode = ProgressDispatchMode.FRAME;
+    private long mInterval = MILLIS_IN_SECOND;
+    private float mStep = 0.01f;
+
+    private long mLastBucket = NO_BUCKET;
+
+    @ProgressDispatchMode
+    int getMode() {
+        return mMode;
+    }
+
+    void setMode(@ProgressDispatchMode int mode) {
+        mMode = mode;
+    }
+
+    long getInterval() {
+        return mInterval;
+    }
+
+    void setInterval(long interval) {
+        mInterval = Constraints.checkDuration(interval);
+    }
+
+    float getStep() {
+        return mStep;
+    }
+
+    void setStep(float step) {
+        if (step <= 0 || step > 1) {
+            throw new IllegalStateException("Step should be in range (0, 1]");
+        }
+        mStep = step;
+    }
+
+    /**
+     * Has to be called when new recording is started
+     */
+    void reset() {
+        mLastBucket = NO_BUCKET;
+    }
+
+    boolean shouldDispatch(float progress, long videoDuration) {
+        if (mMode == ProgressDispatchMode.FRAME) {
+            return true;
+        }
+
+        long bucket = bucketOf(progress, videoDuration);
+        if (bucket != mLastBucket || progress >= 1f) {
+            mLastBucket = bucket;
+            return true;
+        }
+        return false;
+    }
+
+    private long bucketOf(float progress, long videoDuration) {
+        switch (mMode) {
+            case ProgressDispatchMode.INTERVAL:
+                return Math.round(progress * videoDuration) / mInterval;
+            case ProgressDispatchMode.STEP:
+                return (long) (progress / mStep + STEP_EPSILON);
+            case ProgressDispatchMode.SECOND:
+                return Math.round(progress * videoDuration) / MILLIS_IN_SECOND;
+            default:
+                return NO_BUCKET;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton;
+
+import android.graphics.Canvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+
+/**
+ * Keeps separate display list for every layer of the button:
+ * stroke, progress arc, main circle and icons.
+ * <p>
+ * Every {@code begin*} method returns canvas only if inputs of the layer are changed
+ * since the last recording, otherwise null is returned and previously recorded
+ * display list is reused. Returned canvas must be closed with corresponding {@code end*} call.
+ */
+@RequiresApi(api = Build.VERSION_CODES.Q)
+final class RenderNodeLayers {
+
+    private final RenderNode mStrokeNode = new RenderNode("CameraButton#stroke");
+    private final RenderNode mArcNode = new RenderNode("CameraButton#arc");
+    private final RenderNode mMainCircleNode = new RenderNode("CameraButton#mainCircle");
+    private final RenderNode mIconsNode = new RenderNode("CameraButton#icons");
+
+    private int mWidth;
+    private int mHeight;
+
+    //Stroke key
+    private float mStrokeRadius;
+    private int mStrokeColor;
+
+    //Arc key
+    private float mArcRadius;
+    private float mArcWidth;
+    private float mArcProgress;
+    private float mArcRotation;
+    private Object mArcColors;
+
+    //Main circle key
+    private float mMainCircleRadius;
+    private int mMainCircleColor;
+
+    //Icons key
+    private float mIconPosition;
+    private int mIconsCircleRadius;
+    private int mIconSize;
+    private Object mIcons;
+
+    /**
+     * Updates bounds of all layers. In case if size is changed every layer is discarded.
+     */
+    void setSize(int width, int height) {
+        if (mWidth != width || mHeight != height) {
+            mWidth = width;
+            mHeight = height;
+            discard();
+            mStrokeNode.setPosition(0, 0, width, height);
+            mArcNode.setPosition(0, 0, width, height);
+            mMainCircleNode.setPosition(0, 0, width, height);
+            mIconsNode.setPosition(0, 0, width, height);
+        }
+    }
+
+    @Nullable
+    Canvas beginStroke(float radius, int color) {
+        if (mStrokeNode.hasDisplayList() && mStrokeRadius == radius && mStrokeColor == color) {
+            return null;
+        }
+        mStrokeRadius = radius;
+        mStrokeColor = color;
+        return mStrokeNode.beginRecording(mWidth, mHeight);
+    }
+
+    void endStroke() {
+        mStrokeNode.endRecording();
+    }
+
+    @Nullable
+    Canvas beginArc(float radius, float width, float progress, float rotation, Object colors) {
+        if (mArcNode.hasDisplayList()
+                && mArcRadius == radius
+                && mArcWidth == width
+                && mArcProgress == progress
+                && mArcRotation == rotation
+                && mArcColors == colors) {
+            return null;
+        }
+        mArcRadius = radius;
+        mArcWidth = width;
+        mArcProgress = progress;
+        mArcRotation = rotation;
+        mArcColors = colors;
+        return mArcNode.beginRecording(mWidth, mHeight);
+    }
+
+    void endArc() {
+        mArcNode.endRecording();
+    }
+
+    @Nullable
+    Canvas beginMainCircle(float radius, int color) {
+        if (mMainCircleNode.hasDisplayList() && mMainCircleRadius == radius && mMainCircleColor == color) {
+            return null;
+        }
+        mMainCircleRadius = radius;
+        mMainCircleColor = color;
+        return mMainCircleNode.beginRecording(mWidth, mHeight);
+    }
+
+    void endMainCircle() {
+        mMainCircleNode.endRecording();
+    }
+
+    /**
+     * @param circleRadius radius of collapsed main circle which icons are scrolled within
+     */
+    @Nullable
+    Canvas beginIcons(float position, int circleRadius, int iconSize, Object icons) {
+        if (mIconsNode.hasDisplayList()
+                && mIconPosition == position
+                && mIconsCircleRadius == circleRadius
+                && mIconSize == iconSize
+                && mIcons == icons) {
+            return null;
+        }
+        mIconPosition = position;
+        mIconsCircleRadius = circleRadius;
+        mIconSize = iconSize;
+        mIcons = icons;
+        return mIconsNode.beginRecording(mWidth, mHeight);
+    }
+
+    void endIcons() {
+        mIconsNode.endRecording();
+    }
+
+    /**
+     * Draws all layers in order. Works only with hardware accelerated canvas.
+     */
+    void draw(Canvas canvas) {
+        canvas.drawRenderNode(mStrokeNode);
+        canvas.drawRenderNode(mArcNode);
+        canvas.drawRenderNode(mMainCircleNode);
+        canvas.drawRenderNode(mIconsNode);
+    }
+
+    void discard() {
+        mArcColors = null;
+        mIcons = null;
+        mStrokeNode.discardDisplayList();
+        mArcNode.discardDisplayList();
+        mMainCircleNode.discardDisplayList();
+        mIconsNode.discardDisplayList();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.support.annotation.CallSuper
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.shadows.ShadowLooper
+
+/**
+ * Laid out button of fixed geometry whose animations are driven by tests.
+ */
+abstract class BaseButtonTest {
+
+    protected lateinit var button: CameraButton
+    protected var frameTime = 0L
+
+    @Before
+    @CallSuper
+    open fun setUp() {
+        //Frames are driven by tests, scheduled frame callbacks must not run on their own
+        ShadowLooper.pauseMainLooper()
+        button = createButton()
+    }
+
+    protected fun createButton() = CameraButton(RuntimeEnvironment.application).apply {
+        mainCircleRadius = MAIN_CIRCLE_RADIUS
+        strokeWidth = STROKE_WIDTH
+        mainCircleRadiusExpanded = MAIN_CIRCLE_RADIUS_EXPANDED
+        progressArcWidth = PROGRESS_ARC_WIDTH
+        iconSize = ICON_SIZE
+        expandDuration = DURATION
+        collapseDuration = DURATION
+        layout(0, 0, SIZE, SIZE)
+    }
+
+    protected fun nextFrame() {
+        button.mAnimator.doFrame(frameTime)
+    }
+
+    /**
+     * Starts expanding as if the button was held long enough and finishes the animation
+     */
+    protected fun expand() {
+        button.mExpandMessage.run()
+        finishExpanding()
+        assertEquals(State.EXPANDED, button.state)
+    }
+
+    protected fun finishExpanding() {
+        nextFrame()
+        frameTime += DURATION_NANOS
+        nextFrame()
+    }
+
+    companion object {
+        const val SIZE = 100
+        const val CENTER = SIZE / 2f
+
+        const val MAIN_CIRCLE_RADIUS = 20
+        const val STROKE_WIDTH = 10
+        const val MAIN_CIRCLE_RADIUS_EXPANDED = 10
+        const val PROGRESS_ARC_WIDTH = 10
+        const val ICON_SIZE = 10
+
+        const val DURATION = 100L
+        const val DURATION_NANOS = DURATION * 1000000L
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.ButtonAnimator.TRACK_EXPANDING
+import com.hluhovskyi.camerabutton.ButtonAnimator.TRACK_ICONS
+import com.hluhovskyi.camerabutton.ButtonAnimator.TRACK_PROGRESS
+import com.hluhovskyi.camerabutton.ButtonAnimator.flagOf
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.shadows.ShadowLooper
+
+@RunWith(RobolectricTestRunner::class)
+class ButtonAnimatorTest {
+
+    private lateinit var listener: RecordingListener
+    private lateinit var animator: ButtonAnimator
+
+    @Before
+    fun setUp() {
+        //Frames are driven by tests, scheduled frame callbacks must not run on their own
+        ShadowLooper.pauseMainLooper()
+        listener = RecordingListener()
+        animator = ButtonAnimator(listener)
+    }
+
+    @Test
+    fun testTrackAdvancesFromFrameTime() {
+        animator.start(TRACK_PROGRESS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+
+        animator.doFrame(START_NANOS)
+        assertEquals(0f, animator.getValue(TRACK_PROGRESS), DELTA)
+
+        animator.doFrame(START_NANOS + DURATION_NANOS / 2)
+        assertEquals(0.5f, animator.getValue(TRACK_PROGRESS), DELTA)
+    }
+
+    @Test
+    fun testSingleFrameCallbackForAllTracks() {
+        animator.start(TRACK_EXPANDING, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+        animator.start(TRACK_PROGRESS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+        animator.start(TRACK_ICONS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+
+        animator.doFrame(START_NANOS)
+
+        assertEquals(1, listener.frames.size)
+        assertEquals(flagOf(TRACK_EXPANDING) or flagOf(TRACK_PROGRESS) or flagOf(TRACK_ICONS),
+                listener.frames[0])
+    }
+
+    @Test
+    fun testEndIsReportedAfterFrame() {
+        animator.start(TRACK_EXPANDING, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+
+        animator.doFrame(START_NANOS)
+        animator.doFrame(START_NANOS + DURATION_NANOS)
+
+        assertEquals(1f, animator.getValue(TRACK_EXPANDING), DELTA)
+        assertEquals(listOf(TRACK_EXPANDING), listener.ends)
+        assertFalse(animator.isRunning(TRACK_EXPANDING))
+    }
+
+    @Test
+    fun testCancelledTrackIsNotReported() {
+        animator.start(TRACK_EXPANDING, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+        animator.doFrame(START_NANOS)
+
+        animator.cancel(TRACK_EXPANDING)
+        animator.doFrame(START_NANOS + DURATION_NANOS)
+
+        assertEquals(1, listener.frames.size)
+        assertTrue(listener.ends.isEmpty())
+    }
+
+    @Test
+    fun testTrackCanBeChainedFromEnd() {
+        listener.onEnd = { track ->
+            if (track == TRACK_EXPANDING) {
+                animator.start(TRACK_PROGRESS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+            }
+        }
+        animator.start(TRACK_EXPANDING, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+
+        animator.doFrame(START_NANOS)
+        animator.doFrame(START_NANOS + DURATION_NANOS)
+
+        assertTrue(animator.isRunning(TRACK_PROGRESS))
+    }
+
+    @Test
+    fun testZeroDurationEndsOnFirstFrame() {
+        animator.start(TRACK_ICONS, 0f, 2f, 0, Interpolators.getDecelerateInterpolator())
+
+        animator.doFrame(START_NANOS)
+
+        assertEquals(2f, animator.getValue(TRACK_ICONS), DELTA)
+        assertEquals(listOf(TRACK_ICONS), listener.ends)
+    }
+
+    @Test
+    fun testPacedTrackDelaysNextFrame() {
+        animator.start(TRACK_PROGRESS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+        animator.setFrameInterval(TRACK_PROGRESS, DURATION_NANOS / 4)
+
+        assertEquals(DURATION / 4, animator.nextFrameDelayMillis)
+    }
+
+    @Test
+    fun testNotPacedTrackNeedsEveryFrame() {
+        animator.start(TRACK_PROGRESS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+        animator.setFrameInterval(TRACK_PROGRESS, DURATION_NANOS / 4)
+        animator.start(TRACK_ICONS, 0f, 1f, DURATION, Interpolators.getLinearInterpolator())
+
+        assertEquals(0L, animator.nextFrameDelayMillis)
+    }
+
+    private class RecordingListener : ButtonAnimator.Listener {
+
+        val frames = mutableListOf<Int>()
+        val ends = mutableListOf<Int>()
+        var onEnd: (Int) -> Unit = {}
+
+        override fun onAnimationFrame(changedTracks: Int) {
+            frames += changedTracks
+        }
+
+        override fun onAnimationEnd(track: Int) {
+            ends += track
+            onEnd(track)
+        }
+    }
+
+    companion object {
+
+        private const val DELTA = 0.0001f
+        private const val DURATION = 100L
+        private const val DURATION_NANOS = DURATION * 1000000L
+        private const val START_NANOS = 1000000000L
+    }
+}
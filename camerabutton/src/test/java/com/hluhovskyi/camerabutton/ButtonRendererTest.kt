@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import com.hluhovskyi.camerabutton.util.CountingCanvas
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ButtonRendererTest : BaseButtonTest() {
+
+    private val canvas = CountingCanvas(SIZE)
+
+    @Test
+    fun testCollapsedFrameSkipsProgressArc() {
+        val renderer = RecordingRenderer()
+        button.renderer = renderer
+
+        button.onDraw(canvas)
+
+        assertEquals(listOf("stroke", "mainCircle"), renderer.calls)
+    }
+
+    @Test
+    fun testExpandedFrameDrawsLayersInOrder() {
+        val renderer = RecordingRenderer()
+        button.renderer = renderer
+        button.mExpandingFactor = 1f
+
+        button.onDraw(canvas)
+
+        assertEquals(listOf("stroke", "arc", "mainCircle"), renderer.calls)
+    }
+
+    @Test
+    fun testFrameIsInterpolated() {
+        val renderer = RecordingRenderer()
+        button.renderer = renderer
+        button.mExpandingFactor = 1f
+        button.mProgressFactor = 0.5f
+
+        button.onDraw(canvas)
+
+        val frame = button.mFrame
+        assertEquals(CENTER, frame.strokeRadius)
+        assertEquals(MAIN_CIRCLE_RADIUS_EXPANDED.toFloat(), frame.mainCircleRadius)
+        assertEquals(PROGRESS_ARC_WIDTH.toFloat(), frame.progressArcWidth)
+        assertEquals(0.5f, frame.progressFactor)
+    }
+
+    @Test
+    fun testFlatRendererDoesNotDrawShaderIcons() {
+        button.renderer = FlatButtonRenderer()
+        button.setIcons(arrayOf(createIcon(), createIcon()))
+        button.setIconsPosition(0.5f)
+
+        button.onDraw(canvas)
+
+        assertEquals(0, canvas.count(CountingCanvas.DRAW_RECT))
+        assertEquals(1, canvas.count(CountingCanvas.DRAW_BITMAP))
+    }
+
+    private fun createIcon() = Bitmap.createBitmap(ICON_SIZE, ICON_SIZE, Bitmap.Config.ARGB_8888)
+
+    private class RecordingRenderer : ButtonRenderer {
+
+        val calls = mutableListOf<String>()
+
+        override fun onIconsChanged(icons: ButtonIcons?) = Unit
+
+        override fun drawStroke(canvas: Canvas, frame: ButtonFrame) {
+            calls += "stroke"
+        }
+
+        override fun drawProgressArc(canvas: Canvas, frame: ButtonFrame) {
+            calls += "arc"
+        }
+
+        override fun drawMainCircle(canvas: Canvas, frame: ButtonFrame) {
+            calls += "mainCircle"
+        }
+
+        override fun drawIcons(canvas: Canvas, frame: ButtonFrame) {
+            calls += "icons"
+        }
+    }
+}
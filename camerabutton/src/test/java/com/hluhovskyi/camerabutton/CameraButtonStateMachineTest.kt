@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.CameraButtonStateMachine.*
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+//Runs on plain JVM, the machine doesn't touch Android
+class CameraButtonStateMachineTest {
+
+    private val machine = CameraButtonStateMachine(MODE_ALL, ACTION_RELEASE)
+
+    private fun move(to: Int): Int {
+        val events = machine.getTransitionEvents(to)
+        machine.moveTo(to)
+        return events
+    }
+
+    @Test
+    fun testTapIsPhoto() {
+        assertEquals(COMMAND_PRESS, machine.onGesture(GESTURE_PRESS))
+        assertEquals(EVENT_PRESSED_STATE, move(STATE_PRESSED))
+
+        assertEquals(COMMAND_CLICK, machine.onGesture(GESTURE_RELEASE_INSIDE))
+        val events = move(STATE_DEFAULT)
+        assertTrue(events and EVENT_PHOTO_CLICK != 0)
+        assertTrue(events and EVENT_STATE != 0)
+    }
+
+    @Test
+    fun testHoldIsVideo() {
+        machine.onGesture(GESTURE_PRESS)
+        move(STATE_PRESSED)
+        assertTrue(move(STATE_START_EXPANDING) and EVENT_WARM_UP != 0)
+        assertTrue(move(STATE_EXPANDED) and EVENT_VIDEO_START != 0)
+
+        assertEquals(COMMAND_COLLAPSE, machine.onGesture(GESTURE_RELEASE_OUTSIDE))
+        val events = move(STATE_START_COLLAPSING)
+        assertTrue(events and EVENT_VIDEO_FINISH != 0)
+        assertEquals(0, events and EVENT_PHOTO_CLICK)
+    }
+
+    @Test
+    fun testReleaseDuringExpandingIsPhoto() {
+        move(STATE_PRESSED)
+        move(STATE_START_EXPANDING)
+
+        assertEquals(COMMAND_COLLAPSE, machine.onGesture(GESTURE_RELEASE_INSIDE))
+        assertTrue(move(STATE_START_COLLAPSING) and EVENT_PHOTO_CLICK != 0)
+    }
+
+    @Test
+    fun testClickActionKeepsButtonExpandedAfterRelease() {
+        machine.collapseAction = ACTION_CLICK
+        move(STATE_PRESSED)
+        move(STATE_START_EXPANDING)
+        move(STATE_EXPANDED)
+
+        assertEquals(COMMAND_RELEASE_HOLD, machine.onGesture(GESTURE_RELEASE_INSIDE))
+        assertTrue(machine.shouldCollapseOnNextClick())
+
+        assertEquals(COMMAND_HOVER, machine.onGesture(GESTURE_PRESS))
+        assertEquals(COMMAND_IGNORE, machine.onGesture(GESTURE_RELEASE_OUTSIDE))
+        assertEquals(COMMAND_COLLAPSE, machine.onGesture(GESTURE_RELEASE_INSIDE))
+
+        move(STATE_START_COLLAPSING)
+        assertFalse(machine.shouldCollapseOnNextClick())
+    }
+
+    @Test
+    fun testPerformClickCollapsesOnlyWithClickAction() {
+        move(STATE_PRESSED)
+        move(STATE_START_EXPANDING)
+        assertEquals(COMMAND_NONE, machine.onGesture(GESTURE_CLICK))
+
+        machine.collapseAction = ACTION_CLICK
+        assertEquals(COMMAND_COLLAPSE, machine.onGesture(GESTURE_CLICK))
+    }
+
+    @Test
+    fun testCancelReportsVideoCancelInsteadOfFinish() {
+        move(STATE_PRESSED)
+        move(STATE_START_EXPANDING)
+        move(STATE_EXPANDED)
+
+        assertEquals(COMMAND_CANCEL, machine.onGesture(GESTURE_CANCEL))
+        machine.startCanceling()
+        val events = move(STATE_START_COLLAPSING)
+        assertTrue(events and EVENT_VIDEO_CANCEL != 0)
+        assertEquals(0, events and EVENT_VIDEO_FINISH)
+        assertFalse(machine.isCanceling)
+    }
+
+    @Test
+    fun testCancelDuringExpandingIsNotPhoto() {
+        move(STATE_PRESSED)
+        move(STATE_START_EXPANDING)
+
+        machine.startCanceling()
+        assertEquals(0, move(STATE_START_COLLAPSING) and EVENT_PHOTO_CLICK)
+        assertTrue(machine.isCanceling)
+
+        move(STATE_DEFAULT)
+        assertFalse(machine.isCanceling)
+    }
+
+    @Test
+    fun testCancelOfPressAbortsIt() {
+        move(STATE_PRESSED)
+
+        assertEquals(COMMAND_ABORT_PRESS, machine.onGesture(GESTURE_CANCEL))
+        machine.startCanceling()
+        val events = move(STATE_DEFAULT)
+        assertEquals(0, events and EVENT_PHOTO_CLICK)
+        assertTrue(events and EVENT_STATE != 0)
+        assertFalse(machine.isCanceling)
+    }
+
+    @Test
+    fun testToggleRecording() {
+        assertEquals(COMMAND_EXPAND, machine.onGesture(GESTURE_TOGGLE))
+        assertTrue(machine.shouldCollapseOnNextClick())
+        move(STATE_START_EXPANDING)
+        assertEquals(COMMAND_CANCEL, machine.onGesture(GESTURE_TOGGLE))
+
+        move(STATE_EXPANDED)
+        assertEquals(COMMAND_COLLAPSE, machine.onGesture(GESTURE_TOGGLE))
+    }
+
+    @Test
+    fun testPhotoModeMasksVideo() {
+        machine.mode = MODE_PHOTO
+
+        assertFalse(machine.isExpandable)
+        assertEquals(COMMAND_NONE, machine.onGesture(GESTURE_TOGGLE))
+        assertEquals(0, move(STATE_START_EXPANDING) and EVENT_WARM_UP)
+        assertEquals(0, move(STATE_EXPANDED) and EVENT_VIDEO_START)
+    }
+
+    @Test
+    fun testVideoModeMasksPhoto() {
+        machine.mode = MODE_VIDEO
+
+        assertFalse(machine.isPressable)
+        assertEquals(0, move(STATE_PRESSED))
+        assertEquals(0, move(STATE_DEFAULT) and EVENT_PHOTO_CLICK)
+    }
+
+    @Test
+    fun testTablesCoverEveryStateAndGesture() {
+        val states = STATE_COUNT
+        for (action in GESTURE_COMMANDS) {
+            for (commands in action) {
+                assertEquals(states, commands.size)
+                commands.forEach { assertEquals(GESTURE_CLICK + 1, it.size) }
+            }
+        }
+        assertEquals(states, TRANSITION_EVENTS.size)
+        TRANSITION_EVENTS.forEach { assertEquals(states, it.size) }
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun testUnknownModeIsRejected() {
+        machine.mode = 3
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.app.Activity
+import android.widget.FrameLayout
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.shadows.ShadowLooper
+
+//Surface texture isn't available in tests, so progress stays pending until render thread is created
+@RunWith(RobolectricTestRunner::class)
+class CameraButtonTextureViewTest : BaseButtonTest() {
+
+    private val clock = FakeClock(START_NANOS)
+    private lateinit var view: CameraButtonTextureView
+
+    override fun setUp() {
+        super.setUp()
+        button.setClock(clock)
+        view = CameraButtonTextureView(RuntimeEnvironment.application)
+        view.attach(button)
+    }
+
+    @Test
+    fun testProgressStartsWithClockOfButton() {
+        expand()
+
+        assertTrue(button.mIsProgressRenderedExternally)
+        assertSame(clock, view.mPendingClock)
+        assertEquals(START_NANOS, view.mPendingStartTimeNanos)
+    }
+
+    @Test
+    fun testReleaseStopsProgress() {
+        expand()
+        button.release()
+
+        assertEquals(State.START_COLLAPSING, button.state)
+        assertFalse(button.mIsProgressRenderedExternally)
+        assertNull(view.mPendingClock)
+        assertEquals(NO_START_TIME, view.mPendingStartTimeNanos)
+    }
+
+    @Test
+    fun testCancelStopsProgress() {
+        expand()
+        button.cancel()
+
+        assertFalse(button.mIsProgressRenderedExternally)
+        assertNull(view.mPendingClock)
+        assertEquals(NO_START_TIME, view.mPendingStartTimeNanos)
+    }
+
+    @Test
+    fun testDetachReturnsProgressToButton() {
+        expand()
+        view.detach()
+
+        assertFalse(button.mIsProgressRenderedExternally)
+        assertEquals(NO_START_TIME, view.mPendingStartTimeNanos)
+    }
+
+    @Test
+    fun testButtonBoundsFollowLayout() {
+        //Location in window is known only for attached views
+        val activity = Robolectric.setupActivity(Activity::class.java)
+        activity.setContentView(FrameLayout(activity).apply {
+            addView(button)
+            addView(view)
+        })
+        ShadowLooper.runUiThreadTasks()
+        view.layout(0, 0, PARENT_SIZE, PARENT_SIZE)
+        button.layout(LEFT, TOP, LEFT + SIZE, TOP + SIZE)
+        assertBounds(LEFT, TOP)
+
+        button.layout(TOP, LEFT, TOP + SIZE, LEFT + SIZE)
+        assertBounds(TOP, LEFT)
+
+        view.layout(LEFT, LEFT, PARENT_SIZE, PARENT_SIZE)
+        assertBounds(TOP - LEFT, 0)
+    }
+
+    private fun assertBounds(left: Int, top: Int) {
+        assertEquals(left, view.mButtonLeft)
+        assertEquals(top, view.mButtonTop)
+        assertEquals(SIZE, view.mButtonWidth)
+        assertEquals(SIZE, view.mButtonHeight)
+    }
+
+    companion object {
+
+        private const val NO_START_TIME = -1L
+        private const val START_NANOS = 5000000000L
+        private const val PARENT_SIZE = 400
+        private const val LEFT = 50
+        private const val TOP = 60
+    }
+}
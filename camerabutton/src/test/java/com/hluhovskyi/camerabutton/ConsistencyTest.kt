@@ -52,6 +52,7 @@ class ConsistencyTest {
             mainCircleRadiusExpanded = MAIN_CIRCLE_RADIUS_EXPANDED
             progressArcWidth = PROGRESS_ARC_WIDTH
             iconSize = ICON_SIZE
+            layout(0, 0, CANVAS_SIZE, CANVAS_SIZE)
         }
     }
 
@@ -105,6 +106,17 @@ class ConsistencyTest {
         button.onDraw(canvas)
     }
 
+    @Test
+    fun testConsistencyValidatedAgainAfterResize() {
+        button.onDraw(canvas)
+
+        exceptionRule.expect(ConsistencyValidationException::class.java)
+        exceptionRule.expectMessage("StrokeWidth")
+
+        button.layout(0, 0, MAIN_CIRCLE_RADIUS + STROKE_WIDTH - 1, CANVAS_SIZE)
+        button.onDraw(canvas)
+    }
+
     @Test
     fun testConsistencyInvalidButNotValidated() {
         button.apply {
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Rect
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+//View isn't hardware accelerated in Robolectric, so region is computed as for software layer
+@RunWith(RobolectricTestRunner::class)
+class DirtyRegionTest : BaseButtonTest() {
+
+    override fun setUp() {
+        super.setUp()
+        assertFalse(button.isHardwareAccelerated)
+    }
+
+    @Test
+    fun testCollapsedRegionCoversStroke() {
+        button.invalidateExpandingRegion(0f)
+
+        //Stroke radius is 30px around center, plus a pixel for anti-aliasing
+        assertEquals(Rect(19, 19, 81, 81), button.mDirtyRegion)
+    }
+
+    @Test
+    fun testExpandedRegionCoversWholeButton() {
+        button.invalidateExpandingRegion(1f)
+
+        assertEquals(Rect(-1, -1, SIZE + 1, SIZE + 1), button.mDirtyRegion)
+    }
+
+    @Test
+    fun testIconsRegionIsBandOfMainCircleWidth() {
+        button.invalidateIconsRegion()
+
+        assertEquals(Rect(29, 44, 71, 56), button.mDirtyRegion)
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.view.MotionEvent
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class DragZoomTest : BaseButtonTest() {
+
+    private val zooms = mutableListOf<Float>()
+
+    override fun setUp() {
+        super.setUp()
+        button.apply {
+            collapseAction = CameraButton.Action.RELEASE
+            zoomDragDistance = DISTANCE
+            setOnZoomChangeListener { zooms += it }
+        }
+    }
+
+    @Test
+    fun testDragIsMappedToZoom() {
+        touch(MotionEvent.ACTION_DOWN, CENTER)
+        expand()
+
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE / 4f)
+        button.mZoomDispatch.run()
+
+        assertEquals(listOf(0.25f), zooms)
+    }
+
+    @Test
+    fun testMovesAreCoalescedIntoSingleDispatch() {
+        touch(MotionEvent.ACTION_DOWN, CENTER)
+        expand()
+
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE / 4f)
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE / 2f)
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE * 3 / 4f)
+        assertEquals(emptyList<Float>(), zooms)
+
+        button.mZoomDispatch.run()
+        assertEquals(listOf(0.75f), zooms)
+    }
+
+    @Test
+    fun testRangeFollowsFingerBeyondEnds() {
+        touch(MotionEvent.ACTION_DOWN, CENTER)
+        expand()
+
+        //Finger goes above full zoom, so moving back immediately zooms out
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE * 2f)
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE * 1.5f)
+        button.mZoomDispatch.run()
+
+        assertEquals(listOf(0.5f), zooms)
+    }
+
+    @Test
+    fun testNoZoomBeforeRecording() {
+        touch(MotionEvent.ACTION_DOWN, CENTER)
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE / 2f)
+        button.mZoomDispatch.run()
+
+        assertEquals(State.PRESSED, button.state)
+        assertEquals(emptyList<Float>(), zooms)
+    }
+
+    @Test
+    fun testNoZoomAfterRelease() {
+        touch(MotionEvent.ACTION_DOWN, CENTER)
+        expand()
+        touch(MotionEvent.ACTION_MOVE, CENTER - DISTANCE / 2f)
+        touch(MotionEvent.ACTION_UP, CENTER - DISTANCE / 2f)
+        button.mZoomDispatch.run()
+
+        assertEquals(emptyList<Float>(), zooms)
+    }
+
+    private fun touch(action: Int, y: Float) {
+        val event = MotionEvent.obtain(0, 0, action, CENTER, y, 0)
+        button.onTouchEvent(event)
+        event.recycle()
+    }
+
+    companion object {
+
+        private const val DISTANCE = 400
+    }
+}
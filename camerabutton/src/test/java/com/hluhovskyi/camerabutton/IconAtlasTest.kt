@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Bitmap
+import com.hluhovskyi.camerabutton.util.CountingCanvas
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows
+
+@RunWith(RobolectricTestRunner::class)
+class IconAtlasTest : BaseButtonTest() {
+
+    private val canvas = CountingCanvas(SIZE)
+
+    @Test
+    fun testIconsArePackedIntoAtlas() {
+        val icons = ButtonIcons.create(createIcons(ICONS_COUNT), ICON_SIZE, true)
+
+        assertTrue(icons.isAtlas)
+        assertEquals(ICONS_COUNT, icons.count)
+        assertEquals(ICON_SIZE, icons.iconSize)
+    }
+
+    @Test
+    fun testRepackKeepsInstanceIfModeIsSame() {
+        val icons = ButtonIcons.create(createIcons(ICONS_COUNT), ICON_SIZE, false)
+
+        assertSame(icons, icons.repack(false))
+    }
+
+    @Test
+    fun testRepackChangesMode() {
+        val icons = ButtonIcons.create(createIcons(ICONS_COUNT), ICON_SIZE, true)
+
+        val separate = icons.repack(false)
+
+        assertFalse(separate.isAtlas)
+        assertEquals(ICONS_COUNT, separate.count)
+    }
+
+    @Test
+    fun testAtlasModeDrawsScrollingIcons() {
+        button.isIconAtlasEnabled = true
+        button.setIcons(createIcons(ICONS_COUNT))
+        button.setIconsPosition(0.5f)
+
+        button.onDraw(canvas)
+
+        assertEquals(2, canvas.count(CountingCanvas.DRAW_BITMAP))
+        assertEquals(0, canvas.count(CountingCanvas.DRAW_RECT))
+    }
+
+    @Test
+    fun testEnablingAtlasRepacksSetIcons() {
+        val renderer = RecordingRenderer()
+        button.renderer = renderer
+        button.setIcons(createIcons(ICONS_COUNT))
+        val separate = renderer.icons
+
+        button.isIconAtlasEnabled = true
+
+        assertNotSame(separate, renderer.icons)
+        assertTrue(renderer.icons!!.isAtlas)
+    }
+
+    @Test
+    fun testAtlasModeAppliedToNewIcons() {
+        val renderer = RecordingRenderer()
+        button.renderer = renderer
+        button.isIconAtlasEnabled = true
+
+        button.setIcons(createIcons(ICONS_COUNT))
+
+        assertTrue(renderer.icons!!.isAtlas)
+    }
+
+    @Test
+    fun testIconSizeChangeScalesIconsAgain() {
+        val renderer = RecordingRenderer()
+        button.renderer = renderer
+        button.isIconAtlasEnabled = true
+        button.setIcons(createIcons(ICONS_COUNT))
+        Shadows.shadowOf(button).clearWasInvalidated()
+
+        button.iconSize = ICON_SIZE / 2
+
+        assertEquals(ICON_SIZE / 2, renderer.icons!!.iconSize)
+        assertTrue(renderer.icons!!.isAtlas)
+        assertTrue(Shadows.shadowOf(button).wasInvalidated())
+    }
+
+    @Test
+    fun testResizeKeepsInstanceIfSizeIsSame() {
+        val icons = ButtonIcons.create(createIcons(ICONS_COUNT), ICON_SIZE, false)
+
+        assertSame(icons, icons.resize(ICON_SIZE))
+    }
+
+    private fun createIcons(count: Int) = Array(count) {
+        Bitmap.createBitmap(ICON_SIZE * 2, ICON_SIZE * 2, Bitmap.Config.ARGB_8888)
+    }
+
+    private class RecordingRenderer : DefaultButtonRenderer() {
+
+        var icons: ButtonIcons? = null
+
+        override fun onIconsChanged(icons: ButtonIcons?) {
+            super.onIconsChanged(icons)
+            this.icons = icons
+        }
+    }
+
+    companion object {
+
+        private const val ICONS_COUNT = 5
+    }
+}
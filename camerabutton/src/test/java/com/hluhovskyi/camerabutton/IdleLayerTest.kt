@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.util.CountingCanvas
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class IdleLayerTest : BaseButtonTest() {
+
+    private val canvas = CountingCanvas(SIZE)
+
+    @Test
+    fun testWithoutCacheEveryFrameDrawsPrimitives() {
+        repeat(FRAMES) { button.onDraw(canvas) }
+
+        assertEquals(2 * FRAMES, canvas.count(CountingCanvas.DRAW_CIRCLE))
+        assertEquals(0, canvas.count(CountingCanvas.DRAW_BITMAP))
+        assertNull(button.mIdleLayer)
+    }
+
+    @Test
+    fun testWithCacheEveryFrameBlitsLayer() {
+        button.isIdleLayerCacheEnabled = true
+
+        repeat(FRAMES) { button.onDraw(canvas) }
+
+        assertEquals(0, canvas.count(CountingCanvas.DRAW_CIRCLE))
+        assertEquals(FRAMES, canvas.count(CountingCanvas.DRAW_BITMAP))
+        assertEquals(1, button.mIdleLayer.generation)
+    }
+
+    @Test
+    fun testCacheRecordedAgainWhenColorChanged() {
+        button.isIdleLayerCacheEnabled = true
+        button.onDraw(canvas)
+
+        button.makePaintColorsHovered(true)
+        button.onDraw(canvas)
+        button.onDraw(canvas)
+
+        assertEquals(2, button.mIdleLayer.generation)
+    }
+
+    @Test
+    fun testCacheRecordedAgainWhenRadiusChanged() {
+        button.isIdleLayerCacheEnabled = true
+        button.onDraw(canvas)
+
+        button.mainCircleRadius = MAIN_CIRCLE_RADIUS + 1
+        button.onDraw(canvas)
+
+        assertEquals(2, button.mIdleLayer.generation)
+    }
+
+    @Test
+    fun testCacheRecordedAgainWhenIconSizeChanged() {
+        button.isIdleLayerCacheEnabled = true
+        button.onDraw(canvas)
+
+        button.iconSize = ICON_SIZE * 2
+        button.onDraw(canvas)
+        button.onDraw(canvas)
+
+        assertEquals(2, button.mIdleLayer.generation)
+    }
+
+    @Test
+    fun testCacheNotUsedWhileExpanding() {
+        button.isIdleLayerCacheEnabled = true
+        button.mExpandingFactor = 0.5f
+
+        button.onDraw(canvas)
+
+        assertEquals(2, canvas.count(CountingCanvas.DRAW_CIRCLE))
+        assertEquals(0, canvas.count(CountingCanvas.DRAW_BITMAP))
+        assertEquals(0, button.mIdleLayer.generation)
+    }
+
+    companion object {
+
+        private const val FRAMES = 10
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class InterruptedAnimationTest : BaseButtonTest() {
+
+    override fun setUp() {
+        super.setUp()
+        button.setExpandInterpolator(Interpolators.getLinearInterpolator())
+        button.setCollapseInterpolator(Interpolators.getLinearInterpolator())
+    }
+
+    @Test
+    fun testCollapsingContinuesFromCurrentFactor() {
+        button.mExpandMessage.run()
+        nextFrame(0)
+        nextFrame(DURATION_NANOS / 2)
+        assertEquals(State.START_EXPANDING, button.state)
+
+        button.startCollapsing()
+        nextFrame(0)
+
+        assertEquals(0.5f, button.mExpandingFactor, DELTA)
+    }
+
+    @Test
+    fun testInterruptedCollapsingTakesProportionalTime() {
+        button.mExpandMessage.run()
+        nextFrame(0)
+        nextFrame(DURATION_NANOS / 4)
+
+        button.startCollapsing()
+        nextFrame(0)
+        nextFrame(DURATION_NANOS / 4)
+
+        assertEquals(0f, button.mExpandingFactor, DELTA)
+        assertEquals(State.DEFAULT, button.state)
+    }
+
+    @Test
+    fun testExpandingContinuesFromCollapsingFactor() {
+        button.mExpandMessage.run()
+        nextFrame(0)
+        nextFrame(DURATION_NANOS)
+        button.startCollapsing()
+        nextFrame(0)
+        nextFrame(DURATION_NANOS / 4)
+
+        button.startExpanding()
+        nextFrame(0)
+        assertEquals(0.75f, button.mExpandingFactor, DELTA)
+
+        nextFrame(DURATION_NANOS / 4)
+        assertEquals(State.EXPANDED, button.state)
+    }
+
+    private fun nextFrame(elapsedNanos: Long) {
+        frameTime += elapsedNanos
+        nextFrame()
+    }
+
+    companion object {
+
+        private const val DELTA = 0.0001f
+    }
+}
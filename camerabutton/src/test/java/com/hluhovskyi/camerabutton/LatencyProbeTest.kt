@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.view.MotionEvent
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class LatencyProbeTest : BaseButtonTest() {
+
+    private val clock = FakeClock()
+    private lateinit var canvas: Canvas
+    private val measurements = mutableListOf<Triple<State, Long, Long>>()
+
+    override fun setUp() {
+        super.setUp()
+        canvas = Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888))
+        button.mLatencyProbe.setClock(clock)
+        button.setOnLatencyMeasuredListener { state, touchToDispatchNanos, touchToFrameNanos ->
+            measurements += Triple(state, touchToDispatchNanos, touchToFrameNanos)
+        }
+    }
+
+    @Test
+    fun testNotMeasuredByDefault() {
+        assertEquals(CameraButton.NO_LATENCY, button.getTouchToDispatchLatency(State.PRESSED))
+        assertEquals(CameraButton.NO_LATENCY, button.getTouchToFrameLatency(State.PRESSED))
+    }
+
+    @Test
+    fun testTouchToDispatchAndFrame() {
+        clock.nanos = millisToNanos(DOWN_TIME) + DISPATCH_LATENCY
+        touch(MotionEvent.ACTION_DOWN, DOWN_TIME)
+
+        assertEquals(DISPATCH_LATENCY, button.getTouchToDispatchLatency(State.PRESSED))
+        assertEquals(CameraButton.NO_LATENCY, button.getTouchToFrameLatency(State.PRESSED))
+        assertEquals(0, measurements.size)
+
+        clock.nanos = millisToNanos(DOWN_TIME) + FRAME_LATENCY
+        button.onDraw(canvas)
+
+        assertEquals(FRAME_LATENCY, button.getTouchToFrameLatency(State.PRESSED))
+        assertEquals(listOf(Triple(State.PRESSED, DISPATCH_LATENCY, FRAME_LATENCY)), measurements)
+    }
+
+    @Test
+    fun testOnlyFirstFrameIsMeasured() {
+        clock.nanos = millisToNanos(DOWN_TIME)
+        touch(MotionEvent.ACTION_DOWN, DOWN_TIME)
+        clock.nanos += FRAME_LATENCY
+        button.onDraw(canvas)
+        clock.nanos += FRAME_LATENCY
+        button.onDraw(canvas)
+
+        assertEquals(FRAME_LATENCY, button.getTouchToFrameLatency(State.PRESSED))
+        assertEquals(1, measurements.size)
+    }
+
+    @Test
+    fun testStateNotCausedByTouchIsNotMeasured() {
+        button.mExpandMessage.run()
+        button.onDraw(canvas)
+
+        assertEquals(CameraButton.NO_LATENCY, button.getTouchToDispatchLatency(State.START_EXPANDING))
+        assertEquals(0, measurements.size)
+    }
+
+    private fun touch(action: Int, eventTime: Long) {
+        val event = MotionEvent.obtain(DOWN_TIME, eventTime, action, CENTER, CENTER, 0)
+        button.onTouchEvent(event)
+        event.recycle()
+    }
+
+    private fun millisToNanos(millis: Long) = millis * 1000000L
+
+    companion object {
+
+        private const val DOWN_TIME = 1000L
+        private const val DISPATCH_LATENCY = 2000000L
+        private const val FRAME_LATENCY = 16000000L
+    }
+}
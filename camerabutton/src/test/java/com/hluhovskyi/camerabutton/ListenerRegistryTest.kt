@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ListenerRegistryTest : BaseButtonTest() {
+
+    @Test
+    fun testAddAndRemove() {
+        val registry = ListenerRegistry<Any>()
+        val first = Any()
+        val second = Any()
+
+        registry.add(first)
+        registry.add(second)
+        registry.add(first)
+        assertEquals(listOf(first, second), registry.listeners.toList())
+
+        registry.remove(first)
+        assertEquals(listOf(second), registry.listeners.toList())
+
+        registry.remove(second)
+        assertTrue(registry.isEmpty)
+    }
+
+    @Test
+    fun testSetReplacesOnlyPreviouslySetListener() {
+        val registry = ListenerRegistry<Any>()
+        val added = Any()
+        val first = Any()
+        val second = Any()
+
+        registry.add(added)
+        registry.set(first)
+        registry.set(second)
+        assertEquals(listOf(added, second), registry.listeners.toList())
+
+        registry.set(null)
+        assertEquals(listOf(added), registry.listeners.toList())
+    }
+
+    @Test
+    fun testReplacedSetListenerStaysIfItWasAdded() {
+        val registry = ListenerRegistry<Any>()
+        val added = Any()
+        val later = Any()
+
+        registry.add(added)
+        registry.set(added)
+        registry.set(null)
+        assertEquals(listOf(added), registry.listeners.toList())
+
+        registry.set(later)
+        registry.add(later)
+        registry.set(added)
+        assertEquals(listOf(added, later), registry.listeners.toList())
+    }
+
+    @Test
+    fun testSnapshotIsNotChangedByModification() {
+        val registry = ListenerRegistry<Any>()
+        val first = Any()
+        registry.add(first)
+
+        val snapshot = registry.listeners
+        registry.add(Any())
+        registry.remove(first)
+
+        assertEquals(listOf(first), snapshot.toList())
+    }
+
+    @Test
+    fun testButtonNotifiesEveryListener() {
+        val first = mutableListOf<State>()
+        val second = mutableListOf<State>()
+        val set = mutableListOf<State>()
+
+        button.addOnStateChangeListener { first += it }
+        button.addOnStateChangeListener { second += it }
+        button.setOnStateChangeListener { set += it }
+        button.setOnStateChangeListener(null)
+        button.press()
+
+        assertEquals(listOf(State.PRESSED), first)
+        assertEquals(listOf(State.PRESSED), second)
+        assertEquals(emptyList<State>(), set)
+    }
+
+    @Test
+    fun testListenerRemovedDuringDispatchIsNotifiedUntilNextEvent() {
+        val states = mutableListOf<State>()
+
+        button.addOnStateChangeListener(object : CameraButton.OnStateChangeListener {
+            override fun onStateChanged(state: State) {
+                button.removeOnStateChangeListener(this)
+            }
+        })
+        button.addOnStateChangeListener { states += it }
+        button.press()
+        button.release()
+
+        assertEquals(listOf(State.PRESSED, State.DEFAULT), states)
+    }
+}
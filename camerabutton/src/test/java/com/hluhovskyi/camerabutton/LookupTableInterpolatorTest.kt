@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.animation.TimeInterpolator
+import android.view.animation.AccelerateDecelerateInterpolator
+import android.view.animation.DecelerateInterpolator
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class LookupTableInterpolatorTest : BaseButtonTest() {
+
+    @Test
+    fun testEndsAreExact() {
+        val interpolator = LookupTableInterpolator.of(AccelerateDecelerateInterpolator())
+
+        assertEquals(0f, interpolator.getInterpolation(0f), 0f)
+        assertEquals(1f, interpolator.getInterpolation(1f), 0f)
+        assertEquals(0f, interpolator.getInterpolation(-1f), 0f)
+        assertEquals(1f, interpolator.getInterpolation(2f), 0f)
+    }
+
+    @Test
+    fun testFollowsSourceCurve() {
+        assertFollows(AccelerateDecelerateInterpolator())
+        assertFollows(DecelerateInterpolator())
+        assertFollows(CubicBezierInterpolator(0.4f, 0f, 0.2f, 1f))
+    }
+
+    @Test
+    fun testSampledInterpolatorIsNotSampledAgain() {
+        val interpolator = LookupTableInterpolator.of(DecelerateInterpolator())
+
+        assertSame(interpolator, LookupTableInterpolator.of(interpolator))
+    }
+
+    @Test
+    fun testLinearBezierIsLinear() {
+        val interpolator = CubicBezierInterpolator(0f, 0f, 1f, 1f)
+
+        for (i in 0..STEPS) {
+            val input = i / STEPS.toFloat()
+            assertEquals(input, interpolator.getInterpolation(input), DELTA)
+        }
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun testBezierControlPointOutOfRange() {
+        CubicBezierInterpolator(1.5f, 0f, 0.5f, 1f)
+    }
+
+    @Test
+    fun testButtonExpandsWithCustomCurve() {
+        button.setExpandInterpolator(CubicBezierInterpolator(0f, 0f, 1f, 1f))
+
+        button.mExpandMessage.run()
+        nextFrame()
+        frameTime += DURATION_NANOS / 4
+        nextFrame()
+
+        assertEquals(0.25f, button.mExpandingFactor, DELTA)
+    }
+
+    private fun assertFollows(source: TimeInterpolator) {
+        val interpolator = LookupTableInterpolator.of(source)
+        for (i in 0..STEPS) {
+            val input = i / STEPS.toFloat()
+            assertEquals(source.getInterpolation(input), interpolator.getInterpolation(input), DELTA)
+        }
+    }
+
+    companion object {
+
+        private const val DELTA = 0.01f
+        private const val STEPS = 1000
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.view.MotionEvent
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class PrecaptureTest : BaseButtonTest() {
+
+    private val listener = RecordingListener()
+
+    override fun setUp() {
+        super.setUp()
+        button.setOnPhotoEventListener(listener)
+    }
+
+    @Test
+    fun testPrecaptureIsFollowedByClick() {
+        touch(MotionEvent.ACTION_DOWN)
+        assertEquals(listOf(PRECAPTURE), listener.events)
+
+        touch(MotionEvent.ACTION_UP)
+        assertEquals(listOf(PRECAPTURE, CLICK), listener.events)
+    }
+
+    @Test
+    fun testPrecaptureIsAbortedByVideo() {
+        touch(MotionEvent.ACTION_DOWN)
+        expand()
+
+        assertEquals(listOf(PRECAPTURE, ABORTED), listener.events)
+
+        touch(MotionEvent.ACTION_UP)
+        assertEquals(listOf(PRECAPTURE, ABORTED), listener.events)
+    }
+
+    @Test
+    fun testPrecaptureIsAbortedByCancelledGesture() {
+        touch(MotionEvent.ACTION_DOWN)
+        touch(MotionEvent.ACTION_CANCEL)
+
+        assertEquals(State.DEFAULT, button.state)
+        assertEquals(listOf(PRECAPTURE, ABORTED), listener.events)
+    }
+
+    @Test
+    fun testCancelledGestureDuringExpandingIsNotClick() {
+        touch(MotionEvent.ACTION_DOWN)
+        button.mExpandMessage.run()
+        touch(MotionEvent.ACTION_CANCEL)
+
+        assertEquals(State.START_COLLAPSING, button.state)
+        assertEquals(listOf(PRECAPTURE, ABORTED), listener.events)
+    }
+
+    @Test
+    fun testNoPrecaptureInVideoMode() {
+        button.mode = CameraButton.Mode.VIDEO
+
+        touch(MotionEvent.ACTION_DOWN)
+
+        assertEquals(emptyList<String>(), listener.events)
+    }
+
+    private fun touch(action: Int) {
+        val event = MotionEvent.obtain(0, 0, action, CENTER, CENTER, 0)
+        button.onTouchEvent(event)
+        event.recycle()
+    }
+
+    private class RecordingListener : CameraButton.OnPhotoPrecaptureListener {
+
+        val events = mutableListOf<String>()
+
+        override fun onPrecapture() {
+            events += PRECAPTURE
+        }
+
+        override fun onPrecaptureAborted() {
+            events += ABORTED
+        }
+
+        override fun onClick() {
+            events += CLICK
+        }
+    }
+
+    companion object {
+
+        private const val PRECAPTURE = "precapture"
+        private const val ABORTED = "aborted"
+        private const val CLICK = "click"
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.util.CountingCanvas
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ProgressArcTest : BaseButtonTest() {
+
+    private val canvas = CountingCanvas(SIZE)
+
+    override fun setUp() {
+        super.setUp()
+        button.mExpandingFactor = 1f
+    }
+
+    @Test
+    fun testProgressFrameDoesNotTouchCanvasTransformation() {
+        repeat(FRAMES) { frame ->
+            button.mProgressFactor = frame.toFloat() / FRAMES
+            button.onDraw(canvas)
+        }
+
+        assertEquals(FRAMES, canvas.count(CountingCanvas.DRAW_ARC))
+        assertEquals(0, canvas.count(CountingCanvas.SAVE))
+        assertEquals(0, canvas.count(CountingCanvas.ROTATE))
+        assertEquals(0, canvas.count(CountingCanvas.TRANSLATE))
+        assertEquals(0, canvas.count(CountingCanvas.RESTORE))
+    }
+
+    @Test
+    fun testProgressFrameDrawsOnlyPrimitives() {
+        button.mProgressFactor = 0.5f
+        button.onDraw(canvas)
+
+        //Stroke circle, progress arc and main circle
+        assertEquals(3, canvas.totalCount)
+    }
+
+    @Test
+    fun testArcGeometryIsNotAffectedByGradientRotation() {
+        button.mProgressFactor = 0.5f
+        button.onDraw(canvas)
+
+        assertEquals(-90f, canvas.lastArcStartAngle)
+        assertEquals(180f, canvas.lastArcSweepAngle)
+    }
+
+    companion object {
+
+        private const val FRAMES = 10
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.CameraButton.ProgressDispatchMode
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ProgressDispatchTest : BaseButtonTest() {
+
+    private val clock = FakeClock()
+    private val progress = mutableListOf<Float>()
+
+    override fun setUp() {
+        super.setUp()
+        button.videoDuration = VIDEO_DURATION
+        button.setClock(clock)
+        button.setOnProgressChangeListener { progress += it }
+    }
+
+    @Test
+    fun testEveryFrameByDefault() {
+        record()
+
+        assertEquals(FRAMES + 1, progress.size)
+    }
+
+    @Test
+    fun testDispatchEverySecond() {
+        button.setProgressDispatchMode(ProgressDispatchMode.SECOND)
+
+        record()
+
+        assertEquals(listOf(0f, 0.1f, 0.2f, 0.3f, 0.4f, 0.5f, 0.6f, 0.7f, 0.8f, 0.9f, 1f), progress)
+    }
+
+    @Test
+    fun testDispatchEveryStep() {
+        button.setProgressDispatchMode(ProgressDispatchMode.STEP)
+        button.setProgressDispatchStep(0.25f)
+
+        record()
+
+        assertEquals(listOf(0f, 0.25f, 0.5f, 0.75f, 1f), progress)
+    }
+
+    @Test
+    fun testDispatchEveryInterval() {
+        button.setProgressDispatchMode(ProgressDispatchMode.INTERVAL)
+        button.setProgressDispatchInterval(VIDEO_DURATION / 2)
+
+        record()
+
+        assertEquals(listOf(0f, 0.5f, 1f), progress)
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun testInvalidStep() {
+        button.setProgressDispatchStep(0f)
+    }
+
+    /**
+     * Records the whole video with constant frame rate
+     */
+    private fun record() {
+        expand()
+
+        //First frame of recording dispatches initial progress
+        nextFrame()
+        repeat(FRAMES) {
+            clock.nanos += VIDEO_DURATION * 1000000L / FRAMES
+            nextFrame()
+        }
+        assertEquals(State.START_COLLAPSING, button.state)
+    }
+
+    companion object {
+
+        private const val FRAMES = 100
+        private const val VIDEO_DURATION = 10000L
+    }
+}
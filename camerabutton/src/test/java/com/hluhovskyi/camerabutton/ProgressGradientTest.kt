@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.graphics.Color
+import com.hluhovskyi.camerabutton.util.CountingCanvas
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ProgressGradientTest : BaseButtonTest() {
+
+    private val gradient = ProgressGradient()
+
+    @Test
+    fun testEqualColorsReuseShader() {
+        val first = gradient.obtain(SIZE, SIZE, intArrayOf(Color.RED, Color.BLUE))
+        val second = gradient.obtain(SIZE, SIZE, intArrayOf(Color.RED, Color.BLUE))
+
+        assertSame(first, second)
+    }
+
+    @Test
+    fun testDifferentSizeCreatesShader() {
+        val colors = intArrayOf(Color.RED, Color.BLUE)
+
+        val first = gradient.obtain(SIZE, SIZE, colors)
+        val second = gradient.obtain(SIZE * 2, SIZE, colors)
+
+        assertNotSame(first, second)
+    }
+
+    @Test
+    fun testModifiedColorsArrayCreatesShader() {
+        val colors = intArrayOf(Color.RED, Color.BLUE)
+        val first = gradient.obtain(SIZE, SIZE, colors)
+
+        colors[0] = Color.GREEN
+
+        assertNotSame(first, gradient.obtain(SIZE, SIZE, colors))
+    }
+
+    @Test
+    fun testButtonsDoNotShareShader() {
+        val firstCanvas = CountingCanvas(SIZE)
+        val secondCanvas = CountingCanvas(SIZE)
+
+        createExpandedButton().onDraw(firstCanvas)
+        createExpandedButton().onDraw(secondCanvas)
+
+        //Every button rotates local matrix of its own shader
+        assertNotNull(firstCanvas.lastArcShader)
+        assertNotSame(firstCanvas.lastArcShader, secondCanvas.lastArcShader)
+    }
+
+    @Test
+    fun testShaderIsCreatedOnlyOnGradientChange() {
+        val button = createExpandedButton()
+        val canvas = CountingCanvas(SIZE)
+
+        button.onDraw(canvas)
+        val shader = canvas.lastArcShader
+        button.mProgressFactor = 0.5f
+        button.onDraw(canvas)
+
+        assertSame(shader, canvas.lastArcShader)
+    }
+
+    @Test
+    fun testResizedButtonCreatesShader() {
+        val button = createExpandedButton()
+        val canvas = CountingCanvas(SIZE)
+
+        button.onDraw(canvas)
+        val shader = canvas.lastArcShader
+        button.layout(0, 0, SIZE * 2, SIZE * 2)
+        button.onDraw(canvas)
+
+        assertNotSame(shader, canvas.lastArcShader)
+    }
+
+    private fun createExpandedButton() = createButton().apply { mExpandingFactor = 1f }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class RecordingTimerTest : BaseButtonTest() {
+
+    private val clock = FakeClock()
+
+    override fun setUp() {
+        super.setUp()
+        button.videoDuration = VIDEO_DURATION
+        button.setClock(clock)
+        expand()
+    }
+
+    @Test
+    fun testProgressFollowsClock() {
+        clock.nanos += VIDEO_DURATION_NANOS / 2
+        nextFrame()
+
+        assertEquals(0.5f, button.mProgressFactor, DELTA)
+    }
+
+    @Test
+    fun testProgressIgnoresFrameTime() {
+        frameTime += VIDEO_DURATION_NANOS * 10
+        nextFrame()
+
+        assertEquals(0f, button.mProgressFactor, DELTA)
+        assertEquals(State.EXPANDED, button.state)
+    }
+
+    @Test
+    fun testRecordingEndsAtDeadline() {
+        val progress = mutableListOf<Float>()
+        button.setOnProgressChangeListener { progress += it }
+
+        clock.nanos += VIDEO_DURATION_NANOS
+        nextFrame()
+
+        assertEquals(1f, progress.last(), DELTA)
+        assertEquals(State.START_COLLAPSING, button.state)
+    }
+
+    @Test
+    fun testDeadlineMessageEndsRecordingWithoutFrames() {
+        clock.nanos += VIDEO_DURATION_NANOS
+        button.handleRecordingDeadline()
+
+        assertEquals(1f, button.mProgressFactor, DELTA)
+        assertEquals(State.START_COLLAPSING, button.state)
+    }
+
+    @Test
+    fun testEarlyDeadlineMessageIsIgnored() {
+        clock.nanos += VIDEO_DURATION_NANOS - 1
+        button.handleRecordingDeadline()
+
+        assertEquals(State.EXPANDED, button.state)
+    }
+
+    @Test
+    fun testLongRecordingRequestsFrameOncePerPixel() {
+        val button = createButton().apply { videoDuration = LONG_VIDEO_DURATION }
+        button.startProgress()
+
+        val pathLength = button.mGeometry.getProgressPathLength(button.gradientRotationMultiplier)
+        assertEquals((LONG_VIDEO_DURATION / pathLength).toLong(), button.mAnimator.nextFrameDelayMillis)
+    }
+
+    @Test
+    fun testShortRecordingRequestsEveryFrame() {
+        //Progress path becomes longer than recording in milliseconds
+        button.layout(0, 0, SIZE * 2, SIZE * 2)
+
+        assertEquals(0L, button.mAnimator.nextFrameDelayMillis)
+    }
+
+    companion object {
+
+        private const val DELTA = 0.0001f
+        private const val VIDEO_DURATION = 1000L
+        private const val VIDEO_DURATION_NANOS = VIDEO_DURATION * 1000000L
+        private const val LONG_VIDEO_DURATION = 60000L
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.view.MotionEvent
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class TimedEventTest : BaseButtonTest() {
+
+    private val listener = RecordingListener()
+
+    override fun setUp() {
+        super.setUp()
+        button.setClock(FakeClock(DISPATCH_TIME_NANOS))
+        button.setOnPhotoEventListener(listener)
+        button.setOnVideoEventListener(listener)
+    }
+
+    @Test
+    fun testClickCarriesTouchTimes() {
+        touch(MotionEvent.ACTION_DOWN, DOWN_TIME)
+        touch(MotionEvent.ACTION_UP, UP_TIME)
+
+        assertEquals(listOf(Event(CLICK, DOWN_TIME, UP_TIME, DISPATCH_TIME_NANOS)), listener.events)
+    }
+
+    @Test
+    fun testVideoStartIsNotCausedByTouch() {
+        touch(MotionEvent.ACTION_DOWN, DOWN_TIME)
+        expand()
+
+        assertEquals(listOf(Event(START, DOWN_TIME, CameraButton.NO_EVENT_TIME, DISPATCH_TIME_NANOS)),
+                listener.events)
+    }
+
+    @Test
+    fun testVideoFinishCarriesReleaseTime() {
+        button.collapseAction = CameraButton.Action.RELEASE
+        touch(MotionEvent.ACTION_DOWN, DOWN_TIME)
+        expand()
+        touch(MotionEvent.ACTION_UP, UP_TIME)
+
+        assertEquals(Event(FINISH, DOWN_TIME, UP_TIME, DISPATCH_TIME_NANOS), listener.events.last())
+    }
+
+    @Test
+    fun testVideoCancelFromCode() {
+        touch(MotionEvent.ACTION_DOWN, DOWN_TIME)
+        expand()
+        button.cancel()
+
+        assertEquals(Event(CANCEL, DOWN_TIME, CameraButton.NO_EVENT_TIME, DISPATCH_TIME_NANOS),
+                listener.events.last())
+    }
+
+    private fun touch(action: Int, eventTime: Long) {
+        val event = MotionEvent.obtain(DOWN_TIME, eventTime, action, CENTER, CENTER, 0)
+        button.onTouchEvent(event)
+        event.recycle()
+    }
+
+    private data class Event(val name: String, val downTime: Long, val eventTime: Long, val dispatchTimeNanos: Long)
+
+    private class RecordingListener : CameraButton.OnTimedPhotoEventListener, CameraButton.OnTimedVideoEventListener {
+
+        val events = mutableListOf<Event>()
+
+        override fun onClick(downTime: Long, eventTime: Long, dispatchTimeNanos: Long) {
+            events += Event(CLICK, downTime, eventTime, dispatchTimeNanos)
+        }
+
+        override fun onStart(downTime: Long, eventTime: Long, dispatchTimeNanos: Long) {
+            events += Event(START, downTime, eventTime, dispatchTimeNanos)
+        }
+
+        override fun onFinish(downTime: Long, eventTime: Long, dispatchTimeNanos: Long) {
+            events += Event(FINISH, downTime, eventTime, dispatchTimeNanos)
+        }
+
+        override fun onCancel(downTime: Long, eventTime: Long, dispatchTimeNanos: Long) {
+            events += Event(CANCEL, downTime, eventTime, dispatchTimeNanos)
+        }
+
+        override fun onClick() = throw AssertionError("Timed variant is expected")
+
+        override fun onStart() = throw AssertionError("Timed variant is expected")
+
+        override fun onFinish() = throw AssertionError("Timed variant is expected")
+
+        override fun onCancel() = throw AssertionError("Timed variant is expected")
+    }
+
+    companion object {
+
+        private const val CLICK = "click"
+        private const val START = "start"
+        private const val FINISH = "finish"
+        private const val CANCEL = "cancel"
+
+        private const val DOWN_TIME = 1000L
+        private const val UP_TIME = 1200L
+        private const val DISPATCH_TIME_NANOS = 5000000000L
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.view.KeyEvent
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class TriggerTest : BaseButtonTest() {
+
+    private val states = mutableListOf<State>()
+    private var clicks = 0
+
+    override fun setUp() {
+        super.setUp()
+        button.setOnStateChangeListener { states += it }
+        button.setOnPhotoEventListener { clicks++ }
+    }
+
+    @Test
+    fun testPressAndReleaseIsClick() {
+        assertTrue(button.press())
+        assertTrue(button.release())
+
+        assertEquals(listOf(State.PRESSED, State.DEFAULT), states)
+        assertEquals(1, clicks)
+    }
+
+    @Test
+    fun testDisabledButtonIgnoresPress() {
+        button.isEnabled = false
+
+        assertFalse(button.press())
+        assertEquals(emptyList<State>(), states)
+    }
+
+    @Test
+    fun testHeldPressRecordsVideo() {
+        button.collapseAction = CameraButton.Action.RELEASE
+        button.press()
+        expand()
+        button.release()
+
+        assertEquals(State.START_COLLAPSING, button.state)
+        assertEquals(0, clicks)
+    }
+
+    @Test
+    fun testToggleRecording() {
+        button.toggleRecording()
+        finishExpanding()
+        assertEquals(listOf(State.START_EXPANDING, State.EXPANDED), states)
+
+        button.toggleRecording()
+        assertEquals(State.START_COLLAPSING, button.state)
+        assertEquals(0, clicks)
+    }
+
+    @Test
+    fun testToggleDuringExpandingIsNotClick() {
+        button.toggleRecording()
+        button.toggleRecording()
+
+        assertEquals(State.START_COLLAPSING, button.state)
+        assertEquals(0, clicks)
+    }
+
+    @Test
+    fun testShutterKeyIsClick() {
+        key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_CAMERA, 0)
+        key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_CAMERA, 1)
+        key(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_CAMERA, 0)
+
+        assertEquals(listOf(State.PRESSED, State.DEFAULT), states)
+        assertEquals(1, clicks)
+    }
+
+    @Test
+    fun testOtherKeysAreIgnored() {
+        key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 0)
+
+        assertEquals(emptyList<State>(), states)
+    }
+
+    @Test
+    fun testVolumeKeysAreShutterOnlyIfEnabled() {
+        assertFalse(button.isVolumeKeysEnabled)
+        key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_VOLUME_DOWN, 0)
+        key(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_VOLUME_DOWN, 0)
+        assertEquals(emptyList<State>(), states)
+
+        button.isVolumeKeysEnabled = true
+        key(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_VOLUME_UP, 0)
+        key(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_VOLUME_UP, 0)
+        assertEquals(listOf(State.PRESSED, State.DEFAULT), states)
+        assertEquals(1, clicks)
+    }
+
+    @Test
+    fun testPressOfExpandedButtonIsNotAccepted() {
+        button.collapseAction = CameraButton.Action.CLICK
+        button.toggleRecording()
+        finishExpanding()
+
+        assertFalse(button.press())
+        assertEquals(State.EXPANDED, button.state)
+    }
+
+    @Test
+    fun testStatesFollowStateMachineOrder() {
+        assertEquals(CameraButtonStateMachine.STATE_COUNT, State.values().size)
+        assertEquals(CameraButtonStateMachine.STATE_DEFAULT, State.DEFAULT.ordinal)
+        assertEquals(CameraButtonStateMachine.STATE_PRESSED, State.PRESSED.ordinal)
+        assertEquals(CameraButtonStateMachine.STATE_START_EXPANDING, State.START_EXPANDING.ordinal)
+        assertEquals(CameraButtonStateMachine.STATE_EXPANDED, State.EXPANDED.ordinal)
+        assertEquals(CameraButtonStateMachine.STATE_START_COLLAPSING, State.START_COLLAPSING.ordinal)
+    }
+
+    private fun key(action: Int, keyCode: Int, repeat: Int) {
+        val event = KeyEvent(0, 0, action, keyCode, repeat)
+        if (action == KeyEvent.ACTION_DOWN) {
+            button.onKeyDown(keyCode, event)
+        } else {
+            button.onKeyUp(keyCode, event)
+        }
+    }
+}
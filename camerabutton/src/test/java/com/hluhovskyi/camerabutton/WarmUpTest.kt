@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton
+
+import android.view.MotionEvent
+import com.hluhovskyi.camerabutton.CameraButton.State
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+class WarmUpTest : BaseButtonTest() {
+
+    private val listener = RecordingListener()
+
+    override fun setUp() {
+        super.setUp()
+        button.expandDelay = EXPAND_DELAY
+        button.setOnVideoEventListener(listener)
+    }
+
+    @Test
+    fun testWarmUpOnStartExpanding() {
+        touch(MotionEvent.ACTION_DOWN)
+        assertEquals(emptyList<String>(), listener.events)
+
+        button.mExpandMessage.run()
+        assertEquals(listOf(WARM_UP), listener.events)
+
+        finishExpanding()
+        assertEquals(listOf(WARM_UP, START), listener.events)
+    }
+
+    @Test
+    fun testWarmUpAfterHoldThreshold() {
+        button.videoWarmUpDelay = WARM_UP_DELAY
+
+        touch(MotionEvent.ACTION_DOWN)
+        advanceBy(WARM_UP_DELAY)
+        assertEquals(State.PRESSED, button.state)
+        assertEquals(listOf(WARM_UP), listener.events)
+
+        expand()
+        assertEquals(listOf(WARM_UP, START), listener.events)
+    }
+
+    @Test
+    fun testWarmUpIsAbortedByEarlyRelease() {
+        button.videoWarmUpDelay = WARM_UP_DELAY
+
+        touch(MotionEvent.ACTION_DOWN)
+        advanceBy(WARM_UP_DELAY)
+        touch(MotionEvent.ACTION_UP)
+
+        assertEquals(State.DEFAULT, button.state)
+        assertEquals(listOf(WARM_UP, ABORTED), listener.events)
+    }
+
+    @Test
+    fun testWarmUpIsAbortedByReleaseDuringExpanding() {
+        touch(MotionEvent.ACTION_DOWN)
+        button.mExpandMessage.run()
+        button.startCollapsing()
+
+        assertEquals(listOf(WARM_UP, ABORTED), listener.events)
+    }
+
+    @Test
+    fun testNoWarmUpBeforeThreshold() {
+        button.videoWarmUpDelay = WARM_UP_DELAY
+
+        touch(MotionEvent.ACTION_DOWN)
+        touch(MotionEvent.ACTION_UP)
+        advanceBy(WARM_UP_DELAY)
+
+        assertEquals(emptyList<String>(), listener.events)
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun testNegativeWarmUpDelay() {
+        button.videoWarmUpDelay = -2
+    }
+
+    private fun touch(action: Int) {
+        val event = MotionEvent.obtain(0, 0, action, CENTER, CENTER, 0)
+        button.onTouchEvent(event)
+        event.recycle()
+    }
+
+    private fun advanceBy(millis: Long) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(millis, TimeUnit.MILLISECONDS)
+    }
+
+    private class RecordingListener : CameraButton.OnVideoWarmUpListener {
+
+        val events = mutableListOf<String>()
+
+        override fun onWarmUp() {
+            events += WARM_UP
+        }
+
+        override fun onWarmUpAborted() {
+            events += ABORTED
+        }
+
+        override fun onStart() {
+            events += START
+        }
+
+        override fun onFinish() {
+        }
+
+        override fun onCancel() {
+        }
+    }
+
+    companion object {
+
+        private const val WARM_UP = "warmUp"
+        private const val ABORTED = "aborted"
+        private const val START = "start"
+
+        private const val EXPAND_DELAY = 500L
+        private const val WARM_UP_DELAY = 100L
+    }
+}
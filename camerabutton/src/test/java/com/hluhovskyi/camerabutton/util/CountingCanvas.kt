@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 Artem Hluhovskyi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hluhovskyi.camerabutton.util
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.graphics.Paint
+import android.graphics.Rect
+import android.graphics.RectF
+import android.graphics.Shader
+import org.robolectric.Shadows
+
+/**
+ * Canvas which counts performed operations, so tests can assert
+ * how much work is done per frame.
+ */
+class CountingCanvas(size: Int) : Canvas() {
+
+    private val counts = mutableMapOf<String, Int>()
+
+    init {
+        Shadows.shadowOf(this).apply {
+            width = size
+            height = size
+        }
+    }
+
+    var lastArcStartAngle = 0f
+        private set
+
+    var lastArcSweepAngle = 0f
+        private set
+
+    var lastArcShader: Shader? = null
+        private set
+
+    val drawCount: Int
+        get() = count(DRAW_CIRCLE) + count(DRAW_ARC) + count(DRAW_RECT) + count(DRAW_BITMAP)
+
+    val totalCount: Int
+        get() = counts.values.sum()
+
+    fun count(operation: String) = counts[operation] ?: 0
+
+    fun reset() = counts.clear()
+
+    override fun drawCircle(cx: Float, cy: Float, radius: Float, paint: Paint) {
+        increment(DRAW_CIRCLE)
+        super.drawCircle(cx, cy, radius, paint)
+    }
+
+    override fun drawArc(oval: RectF, startAngle: Float, sweepAngle: Float, useCenter: Boolean, paint: Paint) {
+        increment(DRAW_ARC)
+        lastArcStartAngle = startAngle
+        lastArcSweepAngle = sweepAngle
+        lastArcShader = paint.shader
+        super.drawArc(oval, startAngle, sweepAngle, useCenter, paint)
+    }
+
+    override fun drawRect(left: Float, top: Float, right: Float, bottom: Float, paint: Paint) {
+        increment(DRAW_RECT)
+        super.drawRect(left, top, right, bottom, paint)
+    }
+
+    override fun drawBitmap(bitmap: Bitmap, left: Float, top: Float, paint: Paint?) {
+        increment(DRAW_BITMAP)
+        super.drawBitmap(bitmap, left, top, paint)
+    }
+
+    override fun drawBitmap(bitmap: Bitmap, src: Rect?, dst: RectF, paint: Paint?) {
+        increment(DRAW_BITMAP)
+        super.drawBitmap(bitmap, src, dst, paint)
+    }
+
+    override fun save(): Int {
+        increment(SAVE)
+        return super.save()
+    }
+
+    override fun restore() {
+        increment(RESTORE)
+        super.restore()
+    }
+
+    override fun rotate(degrees: Float) {
+        increment(ROTATE)
+        super.rotate(degrees)
+    }
+
+    override fun translate(dx: Float, dy: Float) {
+        increment(TRANSLATE)
+        super.translate(dx, dy)
+    }
+
+    private fun increment(operation: String) {
+        counts[operation] = count(operation) + 1
+    }
+
+    companion object {
+
+        const val DRAW_CIRCLE = "drawCircle"
+        const val DRAW_ARC = "drawArc"
+        const val DRAW_RECT = "drawRect"
+        const val DRAW_BITMAP = "drawBitmap"
+        const val SAVE = "save"
+        const val RESTORE = "restore"
+        const val ROTATE = "rotate"
+        const val TRANSLATE = "translate"
+    }
+}